@@ -1,52 +1,289 @@
 package org.project;
 
 import lombok.extern.slf4j.Slf4j;
+import org.project.formatter.JobAnalysisRecordWriter;
+import org.project.formatter.RecordFormat;
 import org.project.formatter.ReportFormatter;
+import org.project.ingest.FollowCheckpoint;
+import org.project.ingest.FollowCheckpointer;
+import org.project.ingest.LogFileFollower;
+import org.project.ingest.LogFileIngestor;
 import org.project.model.JobAnalysis;
+import org.project.model.JobAnalysisState;
+import org.project.model.JobSummary;
 import org.project.model.LogEntry;
+import org.project.model.SlowestJobs;
 import org.project.monitor.LogMonitor;
+import org.project.monitor.LogMonitorEngine;
 import org.project.parser.CsvLogParser;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 /**
- * Reads one or more CSV log files, processes job executions, and generates a report
+ * Reads one or more CSV log files, processes job executions, and generates a report.
+ * With --follow the files are watched, jobs are logged as they complete and as soon as they run past a threshold;
+ * the report options below do not apply to it.
+ * With --report=FILE the report is streamed to the file, or to standard output for -, instead of being logged.
+ * With --top=N the report only lists the N slowest jobs overall and of each job type besides the totals,
+ * keeping no other results.
+ * With --summary the report leaves out the OK jobs, which are only counted and added to the durations by job type,
+ * so a run over clean logs keeps almost nothing in memory.
+ * With --format=jsonl or --format=csv one record per job is streamed as the job is analyzed instead of the report,
+ * to the --report file or to standard output.
+ * <p>
+ * Follow runs can be checkpointed via system properties:
+ * - log.follow.checkpoint.file (default: none), a restarted run continues from the offsets and open jobs saved in it
+ * - log.follow.checkpoint.interval.millis (default: 10000)
  */
 @Slf4j
 public class LogMonitoringApp {
+    private static final String FOLLOW_OPTION = "--follow";
+    private static final String REPORT_OPTION = "--report=";
+    private static final String FORMAT_OPTION = "--format=";
+    private static final String TOP_OPTION = "--top=";
+    private static final String SUMMARY_OPTION = "--summary";
+    private static final String STANDARD_OUTPUT = "-";
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000;
 
     public static void main(String[] args) {
         try {
-            if (args.length < 1) {
+            List<String> unknownOptions = Stream.of(args)
+                    .filter(arg -> arg.startsWith("--") && !FOLLOW_OPTION.equals(arg) && !SUMMARY_OPTION.equals(arg)
+                            && !arg.startsWith(REPORT_OPTION) && !arg.startsWith(FORMAT_OPTION) && !arg.startsWith(TOP_OPTION))
+                    .toList();
+            if (!unknownOptions.isEmpty()) {
+                log.error("Aborting, unknown option(s): {}", unknownOptions);
+                System.exit(400);
+            }
+            boolean follow = Stream.of(args).anyMatch(FOLLOW_OPTION::equals);
+            String reportFile = optionValue(args, REPORT_OPTION);
+            if (reportFile != null && reportFile.isEmpty()) {
+                log.error("Aborting, {} needs a file path, or - for standard output", REPORT_OPTION);
+                System.exit(400);
+            }
+            String format = Optional.ofNullable(optionValue(args, FORMAT_OPTION)).orElse("text");
+            RecordFormat recordFormat = switch (format) {
+                case "jsonl" -> RecordFormat.JSON_LINES;
+                case "csv" -> RecordFormat.CSV;
+                default -> null;
+            };
+            if (recordFormat == null && !"text".equals(format)) {
+                log.error("Aborting, unknown format {}, expected text, jsonl or csv", format);
+                System.exit(400);
+            }
+            String topValue = optionValue(args, TOP_OPTION);
+            int top = topValue == null ? 0 : parsePositive(topValue);
+            if (topValue != null && (top <= 0 || recordFormat != null)) {
+                log.error("Aborting, {} needs a positive number of jobs and the text format", TOP_OPTION);
+                System.exit(400);
+            }
+            boolean summary = Stream.of(args).anyMatch(SUMMARY_OPTION::equals);
+            if (summary && (top > 0 || recordFormat != null)) {
+                log.error("Aborting, {} cannot be combined with {} nor with a record format", SUMMARY_OPTION, TOP_OPTION);
+                System.exit(400);
+            }
+            if (follow && (reportFile != null || recordFormat != null || top > 0 || summary)) {
+                log.error("Aborting, {} logs every job as it completes and cannot be combined with {}, {}, {} nor {}",
+                        FOLLOW_OPTION, REPORT_OPTION, FORMAT_OPTION, TOP_OPTION, SUMMARY_OPTION);
+                System.exit(400);
+            }
+            List<Path> filePaths = Stream.of(args).filter(arg -> !arg.startsWith("--")).distinct().map(Paths::get).toList();
+            if (filePaths.isEmpty()) {
                 log.error("Aborting, at least one log file path must be provided as argument");
                 System.exit(400);
             }
-            List<Path> filePaths = Stream.of(args).distinct().map(Paths::get).toList();
             List<String> invalidFilePaths = filePaths.stream().filter(logFilePath -> !logFilePath.toFile().exists()).map(Path::toString).toList();
             if (!invalidFilePaths.isEmpty()) {
                 log.error("Aborting, log file(s) not found: {}", invalidFilePaths);
                 System.exit(400);
             }
             CsvLogParser parser = new CsvLogParser();
-            List<LogEntry> logEntries = new ArrayList<>();
-            for (Path logFilePath : filePaths) {
-                log.info("Reading log file: {}", logFilePath);
-                logEntries.addAll(parser.parse(logFilePath));
+            if (follow) {
+                try {
+                    follow(parser, filePaths);
+                } finally {
+                    parser.rejectedLines().close();
+                }
+                return;
+            }
+            AtomicLong parsedEntries = new AtomicLong();
+            List<JobAnalysis> analyzedLogEntries = null;
+            SlowestJobs slowestJobs = top > 0 ? new SlowestJobs(top) : null;
+            JobSummary jobSummary = summary ? new JobSummary() : null;
+            // entries flow from the parser straight into the monitor
+            try (Stream<LogEntry> logEntries = new LogFileIngestor(parser).stream(filePaths)
+                    .peek(entry -> parsedEntries.incrementAndGet())) {
+                if (slowestJobs != null) {
+                    new LogMonitor().process(logEntries, slowestJobs);
+                } else if (jobSummary != null) {
+                    new LogMonitor().process(logEntries, jobSummary);
+                } else if (recordFormat == null) {
+                    analyzedLogEntries = new LogMonitor().process(logEntries);
+                } else {
+                    writeRecords(logEntries, recordFormat, reportFile);
+                }
+            } finally {
+                parser.rejectedLines().close();
             }
 
-            log.info("Parsed {} log entries", logEntries.size());
-
-            List<JobAnalysis> analyzedLogEntries = new LogMonitor().process(logEntries);
+            log.info("Parsed {} log entries", parsedEntries.get());
+            if (parser.rejectedLines().total() > 0) {
+                log.warn("Rejected {} log lines: {}", parser.rejectedLines().total(), parser.rejectedLines().counts());
+            }
 
-            String report = new ReportFormatter().format(analyzedLogEntries);
-            log.info(report);
+            if (slowestJobs != null) {
+                writeReport(reportFile, (formatter, out) -> formatter.write(slowestJobs, out));
+            } else if (jobSummary != null) {
+                writeReport(reportFile, (formatter, out) -> formatter.write(jobSummary, out));
+            } else if (analyzedLogEntries != null) {
+                List<JobAnalysis> analyzedJobs = analyzedLogEntries;
+                writeReport(reportFile, (formatter, out) -> formatter.write(analyzedJobs, out));
+            }
         } catch (Exception e) {
             log.error("Unexpected error occurred", e);
             System.exit(500);
         }
     }
+
+    /**
+     * @return The number, or 0 if the value is not a positive number
+     */
+    private static int parsePositive(String value) {
+        try {
+            return Math.max(0, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return Value of the last occurrence of the option, or null if it is not given
+     */
+    private static String optionValue(String[] args, String option) {
+        return Stream.of(args).filter(arg -> arg.startsWith(option))
+                .map(arg -> arg.substring(option.length())).reduce((first, last) -> last).orElse(null);
+    }
+
+    /**
+     * Analyzes the entries and writes each result as a record as soon as it is known, keeping none of them.
+     */
+    private static void writeRecords(Stream<LogEntry> logEntries, RecordFormat format, String reportFile) throws IOException {
+        if (reportFile == null || STANDARD_OUTPUT.equals(reportFile)) {
+            JobAnalysisRecordWriter records = new JobAnalysisRecordWriter(System.out, format);
+            new LogMonitor().process(logEntries, records);
+            records.flush();
+            return;
+        }
+        try (OutputStream out = Files.newOutputStream(Path.of(reportFile))) {
+            JobAnalysisRecordWriter records = new JobAnalysisRecordWriter(out, format);
+            new LogMonitor().process(logEntries, records);
+            records.flush();
+            log.info("Wrote {} records to {}", records.records(), reportFile);
+        }
+    }
+
+    /**
+     * Logs the report, or streams it to the file or to standard output without building it in memory first.
+     */
+    private static void writeReport(String reportFile, Report report) throws IOException {
+        ReportFormatter formatter = new ReportFormatter();
+        if (reportFile == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            report.write(formatter, out);
+            log.info(out.toString(StandardCharsets.UTF_8));
+        } else if (STANDARD_OUTPUT.equals(reportFile)) {
+            report.write(formatter, System.out);
+        } else {
+            try (OutputStream out = Files.newOutputStream(Path.of(reportFile))) {
+                report.write(formatter, out);
+            }
+            log.info("Wrote report to {}", reportFile);
+        }
+    }
+
+    /**
+     * Writes one kind of report with the formatter.
+     */
+    @FunctionalInterface
+    private interface Report {
+        void write(ReportFormatter formatter, OutputStream out) throws IOException;
+    }
+
+    /**
+     * Analyzes the files and keeps following them, reporting each job as soon as its END is logged
+     * or an entry logged after one of its thresholds shows it is still running.
+     * Runs until the JVM is stopped, then reports the jobs that are still open.
+     */
+    private static void follow(CsvLogParser parser, List<Path> filePaths) {
+        Path checkpointFile = Optional.ofNullable(System.getProperty("log.follow.checkpoint.file")).map(Path::of).orElse(null);
+        FollowCheckpoint checkpoint = readCheckpoint(checkpointFile);
+        LogFileFollower follower = new LogFileFollower(parser, filePaths, checkpoint);
+        Thread mainThread = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            follower.close();
+            try {
+                mainThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        LogMonitorEngine engine = new LogMonitor().newEngine(LogMonitoringApp::reportLive, LogMonitoringApp::reportOverdue);
+        checkpoint.openStarts().forEach(engine::accept);
+        FollowCheckpointer checkpointer = checkpointFile == null ? null : new FollowCheckpointer(checkpointFile,
+                Duration.ofMillis(Long.parseLong(System.getProperty("log.follow.checkpoint.interval.millis", "10000"))), follower, engine);
+
+        log.info("Following log file(s): {}", filePaths);
+        try (Stream<LogEntry> logEntries = checkpointer == null ? follower.stream() : follower.stream(checkpointer)) {
+            logEntries.forEachOrdered(engine::accept);
+        }
+        if (checkpointer != null) {
+            checkpointer.write();
+        }
+        engine.flush();
+    }
+
+    /**
+     * @return The checkpoint saved by an earlier run, or an empty one to read the files from the start
+     */
+    private static FollowCheckpoint readCheckpoint(Path checkpointFile) {
+        FollowCheckpoint empty = new FollowCheckpoint(Map.of(), List.of());
+        if (checkpointFile == null || !Files.exists(checkpointFile)) {
+            return empty;
+        }
+        try {
+            FollowCheckpoint checkpoint = FollowCheckpoint.read(checkpointFile);
+            log.info("Restored {} open jobs from checkpoint {}", checkpoint.openStarts().size(), checkpointFile);
+            return checkpoint;
+        } catch (IOException e) {
+            log.warn("Ignoring checkpoint {}, reading the files from the start: {}", checkpointFile, e.getMessage());
+            return empty;
+        }
+    }
+
+    private static void reportOverdue(JobAnalysis analysis) {
+        log.warn("{} job: {}", analysis.state(), analysis.reason());
+    }
+
+    private static void reportLive(JobAnalysis analysis) {
+        if (analysis.hasDanglingEntry()) {
+            log.warn("Dangling entry: {}", analysis.reason());
+        } else if (analysis.state() != JobAnalysisState.OK) {
+            log.warn("{} job: {} - {}", analysis.state(), analysis.jobExecution(), analysis.reason());
+        } else {
+            log.debug("OK job: {}", analysis.jobExecution());
+        }
+    }
 }
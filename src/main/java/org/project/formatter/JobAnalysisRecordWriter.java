@@ -0,0 +1,298 @@
+package org.project.formatter;
+
+import org.project.model.JobAnalysis;
+import org.project.model.JobExecution;
+import org.project.model.LogEntry;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Writes one machine-readable record per analyzed job as it is handed over, with the fields
+ * state, pid, description, start, end, durationMillis and reason. Start and end are times of day, empty or null
+ * when the job has no such entry, as for dangling entries; the reason is empty or null for jobs without one.
+ * <p>
+ * Records are encoded as UTF-8 straight into a byte buffer that is written to the stream when full,
+ * so writing a record allocates nothing for the usual ASCII descriptions and reasons.
+ * Errors are thrown as {@link UncheckedIOException}. Not thread safe; the stream is flushed but never closed.
+ */
+public final class JobAnalysisRecordWriter implements Consumer<JobAnalysis>, Flushable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // room for any field but strings, which are written in pieces
+    private static final int MAX_FIXED_FIELD = 32;
+    private static final byte[] CSV_HEADER = "state,pid,description,start,end,durationMillis,reason\n".getBytes(StandardCharsets.US_ASCII);
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long NANOS_PER_DAY = TimeUnit.DAYS.toNanos(1);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final RecordFormat format;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private long records;
+
+    /**
+     * @param out    Receives the records, written in large blocks so it needs no buffering of its own
+     * @param format Encoding of the records; CSV starts with a header line
+     */
+    public JobAnalysisRecordWriter(OutputStream out, RecordFormat format) {
+        this.out = Objects.requireNonNull(out);
+        this.format = Objects.requireNonNull(format);
+        if (format == RecordFormat.CSV) {
+            System.arraycopy(CSV_HEADER, 0, buffer, 0, CSV_HEADER.length);
+            position = CSV_HEADER.length;
+        }
+    }
+
+    @Override
+    public void accept(JobAnalysis analysis) {
+        JobExecution job = analysis.jobExecution();
+        LogEntry entry = job != null ? job.startEntry() : analysis.danglingEntry();
+        LogEntry start = job != null ? job.startEntry() : entry.isStart() ? entry : null;
+        LogEntry end = job != null ? job.endEntry() : entry.isEnd() ? entry : null;
+        long durationMillis = job != null ? job.durationNanos() / NANOS_PER_MILLI : -1;
+        if (format == RecordFormat.JSON_LINES) {
+            writeJson(analysis, entry, start, end, durationMillis);
+        } else {
+            writeCsv(analysis, entry, start, end, durationMillis);
+        }
+        records++;
+    }
+
+    private void writeJson(JobAnalysis analysis, LogEntry entry, LogEntry start, LogEntry end, long durationMillis) {
+        writeAscii("{\"state\":\"");
+        writeAscii(analysis.state().name());
+        writeAscii("\",\"pid\":");
+        writeLong(entry.pid());
+        writeAscii(",\"description\":");
+        writeJsonString(entry.jobDescription());
+        writeAscii(",\"start\":");
+        writeJsonTime(start);
+        writeAscii(",\"end\":");
+        writeJsonTime(end);
+        writeAscii(",\"durationMillis\":");
+        if (durationMillis < 0) {
+            writeAscii("null");
+        } else {
+            writeLong(durationMillis);
+        }
+        writeAscii(",\"reason\":");
+        if (analysis.reason() == null) {
+            writeAscii("null");
+        } else {
+            writeJsonString(analysis.reason());
+        }
+        writeAscii("}\n");
+    }
+
+    private void writeJsonTime(LogEntry entry) {
+        if (entry == null) {
+            writeAscii("null");
+            return;
+        }
+        writeByte('"');
+        writeTime(entry.timeNanos());
+        writeByte('"');
+    }
+
+    private void writeJsonString(String value) {
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writeByte('\\');
+                writeByte(c);
+            } else if (c < 0x20) {
+                writeAscii("\\u00");
+                writeByte(HEX[c >>> 4]);
+                writeByte(HEX[c & 0xF]);
+            } else {
+                i = writeChar(value, i);
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeCsv(JobAnalysis analysis, LogEntry entry, LogEntry start, LogEntry end, long durationMillis) {
+        writeAscii(analysis.state().name());
+        writeByte(',');
+        writeLong(entry.pid());
+        writeByte(',');
+        writeCsvString(entry.jobDescription());
+        writeByte(',');
+        if (start != null) {
+            writeTime(start.timeNanos());
+        }
+        writeByte(',');
+        if (end != null) {
+            writeTime(end.timeNanos());
+        }
+        writeByte(',');
+        if (durationMillis >= 0) {
+            writeLong(durationMillis);
+        }
+        writeByte(',');
+        if (analysis.reason() != null) {
+            writeCsvString(analysis.reason());
+        }
+        writeByte('\n');
+    }
+
+    private void writeCsvString(String value) {
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (quoted) {
+            writeByte('"');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                writeByte('"');
+            }
+            i = writeChar(value, i);
+        }
+        if (quoted) {
+            writeByte('"');
+        }
+    }
+
+    /**
+     * Writes the time of day as HH:mm:ss, followed by the fraction of the second if there is one.
+     */
+    private void writeTime(long timeNanos) {
+        long nanoOfDay = Math.floorMod(timeNanos, NANOS_PER_DAY);
+        int secondOfDay = (int) (nanoOfDay / NANOS_PER_SECOND);
+        ensure(MAX_FIXED_FIELD);
+        writeTwoDigits(secondOfDay / 3600);
+        buffer[position++] = ':';
+        writeTwoDigits(secondOfDay / 60 % 60);
+        buffer[position++] = ':';
+        writeTwoDigits(secondOfDay % 60);
+        int nanos = (int) (nanoOfDay % NANOS_PER_SECOND);
+        if (nanos != 0) {
+            buffer[position++] = '.';
+            int digits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digits--;
+            }
+            for (int i = digits - 1; i >= 0; i--) {
+                buffer[position + i] = (byte) ('0' + nanos % 10);
+                nanos /= 10;
+            }
+            position += digits;
+        }
+    }
+
+    private void writeTwoDigits(int value) {
+        buffer[position++] = (byte) ('0' + value / 10);
+        buffer[position++] = (byte) ('0' + value % 10);
+    }
+
+    private void writeLong(long value) {
+        ensure(MAX_FIXED_FIELD);
+        if (value < 0) {
+            buffer[position++] = '-';
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = (byte) ('0' + Math.abs(value % 10));
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    private void writeAscii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeByte(int value) {
+        ensure(1);
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Writes the character at the index as UTF-8, together with the next one if they form a surrogate pair.
+     *
+     * @return Index of the last character written
+     */
+    private int writeChar(String value, int index) {
+        char c = value.charAt(index);
+        ensure(4);
+        if (c < 0x80) {
+            buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | c >>> 6);
+            buffer[position++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(++index));
+            buffer[position++] = (byte) (0xF0 | codePoint >>> 18);
+            buffer[position++] = (byte) (0x80 | codePoint >>> 12 & 0x3F);
+            buffer[position++] = (byte) (0x80 | codePoint >>> 6 & 0x3F);
+            buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+        } else if (Character.isSurrogate(c)) {
+            buffer[position++] = '?';
+        } else {
+            buffer[position++] = (byte) (0xE0 | c >>> 12);
+            buffer[position++] = (byte) (0x80 | c >>> 6 & 0x3F);
+            buffer[position++] = (byte) (0x80 | c & 0x3F);
+        }
+        return index;
+    }
+
+    /**
+     * Makes room for that many bytes, writing out the buffer if needed.
+     */
+    private void ensure(int bytes) {
+        if (buffer.length - position < bytes) {
+            drain();
+            if (bytes > buffer.length) {
+                throw new IllegalArgumentException(String.format("Cannot write %d bytes at once", bytes));
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            out.write(buffer, 0, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        position = 0;
+    }
+
+    /**
+     * @return Number of records written so far
+     */
+    public long records() {
+        return records;
+    }
+
+    /**
+     * Writes the buffered records to the stream and flushes it.
+     */
+    @Override
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
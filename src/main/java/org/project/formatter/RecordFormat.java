@@ -0,0 +1,15 @@
+package org.project.formatter;
+
+/**
+ * Selects how {@link JobAnalysisRecordWriter} writes one record per analyzed job.
+ */
+public enum RecordFormat {
+    /**
+     * One JSON object per line.
+     */
+    JSON_LINES,
+    /**
+     * A header line, then one comma separated line per record, quoted as in RFC 4180.
+     */
+    CSV
+}
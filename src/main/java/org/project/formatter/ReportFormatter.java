@@ -1,69 +1,306 @@
 package org.project.formatter;
 
+import org.project.model.DurationHistogram;
 import org.project.model.JobAnalysis;
 import org.project.model.JobAnalysisState;
+import org.project.model.JobCounts;
+import org.project.model.JobExecution;
+import org.project.model.JobSummary;
+import org.project.model.JobTimeline;
+import org.project.model.SlowestJobs;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
 /**
  * Formats analyzed jobs into a human-readable report.
+ * The report is written section by section, so writing it to a {@link Writer} or an {@link OutputStream}
+ * never holds the whole report in memory.
  */
 public class ReportFormatter {
+    private static final int TIMELINE_WINDOW_SECONDS = 60;
+    private static final String DOUBLE_RULE = "=".repeat(128);
+    private static final String RULE = "-".repeat(128);
 
     /**
      * @param analyzedJobs The list of analyzed jobs to format
      * @return A formatted report string
      */
     public String format(List<JobAnalysis> analyzedJobs) {
-        Map<JobAnalysisState, List<JobAnalysis>> stateToJobs = analyzedJobs.stream()
-                .filter(JobAnalysis::hasJobExecution)
-                .collect(Collectors.groupingBy(JobAnalysis::state));
+        return format(out -> append(analyzedJobs, out));
+    }
+
+    /**
+     * Writes the report to the stream as UTF-8 through a buffer, and flushes it. The stream is left open.
+     *
+     * @param analyzedJobs The list of analyzed jobs to format
+     * @param out          Receives the report
+     */
+    public void write(List<JobAnalysis> analyzedJobs, OutputStream out) throws IOException {
+        write(out, writer -> append(analyzedJobs, writer));
+    }
+
+    /**
+     * Writes the report section by section. The writer is neither flushed nor closed.
+     *
+     * @param analyzedJobs The list of analyzed jobs to format
+     * @param out          Receives the report, preferably buffered
+     */
+    public void write(List<JobAnalysis> analyzedJobs, Writer out) throws IOException {
+        append(analyzedJobs, out);
+    }
 
-        List<JobAnalysis> danglingEntries = analyzedJobs.stream()
-                .filter(JobAnalysis::hasDanglingEntry)
-                .toList();
+    /**
+     * @param slowestJobs The slowest jobs and the totals of all results
+     * @return A report of the totals and the slowest jobs only
+     */
+    public String format(SlowestJobs slowestJobs) {
+        return format(out -> append(slowestJobs, out));
+    }
+
+    /**
+     * Same as {@link #write(List, OutputStream)} for a report of the totals and the slowest jobs only.
+     */
+    public void write(SlowestJobs slowestJobs, OutputStream out) throws IOException {
+        write(out, writer -> append(slowestJobs, writer));
+    }
+
+    /**
+     * Same as {@link #write(List, Writer)} for a report of the totals and the slowest jobs only.
+     */
+    public void write(SlowestJobs slowestJobs, Writer out) throws IOException {
+        append(slowestJobs, out);
+    }
 
+    /**
+     * @param summary Totals of all results and the WARNING, FAULTY and dangling ones
+     * @return A report of the totals, the durations by job type and the problems, without the OK jobs
+     */
+    public String format(JobSummary summary) {
+        return format(out -> append(summary, out));
+    }
+
+    /**
+     * Same as {@link #write(List, OutputStream)} for a report without the OK jobs.
+     */
+    public void write(JobSummary summary, OutputStream out) throws IOException {
+        write(out, writer -> append(summary, writer));
+    }
+
+    /**
+     * Same as {@link #write(List, Writer)} for a report without the OK jobs.
+     */
+    public void write(JobSummary summary, Writer out) throws IOException {
+        append(summary, out);
+    }
+
+    private static String format(Report report) {
         StringBuilder sb = new StringBuilder();
-        sb.append('\n').append("=".repeat(128)).append('\n');
-        sb.append("LOG MONITORING REPORT\n");
-        sb.append("=".repeat(128)).append("\n\n");
+        try {
+            report.appendTo(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    private static void write(OutputStream out, Report report) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        report.appendTo(writer);
+        writer.flush();
+    }
+
+    private void append(SlowestJobs slowestJobs, Appendable out) throws IOException {
+        appendHeader(out);
+        appendSummary(out, slowestJobs.counts());
+        if (slowestJobs.counts().danglingEntries() > 0) {
+            out.append(String.valueOf(slowestJobs.counts().danglingEntries())).append(" dangling entries\n\n");
+        }
+
+        List<JobAnalysis> slowest = slowestJobs.slowest();
+        if (!slowest.isEmpty()) {
+            out.append(RULE).append('\n');
+            out.append("Slowest ").append(String.valueOf(slowestJobs.limit())).append(" jobs:\n");
+            out.append(RULE).append('\n');
+            for (JobAnalysis analysis : slowest) {
+                appendSlowJob(out, " - ", analysis);
+            }
+            out.append('\n');
 
-        sb.append("Jobs summary\n");
+            out.append(RULE).append('\n');
+            out.append("Slowest ").append(String.valueOf(slowestJobs.limit())).append(" jobs per type:\n");
+            out.append(RULE).append('\n');
+            for (Map.Entry<String, List<JobAnalysis>> type : slowestJobs.slowestByType().entrySet()) {
+                out.append("   + ").append(type.getKey()).append('\n');
+                for (JobAnalysis analysis : type.getValue()) {
+                    appendSlowJob(out, "      - ", analysis);
+                }
+            }
+            out.append('\n');
+        }
+        out.append(DOUBLE_RULE).append('\n');
+    }
+
+    private void append(JobSummary summary, Appendable out) throws IOException {
+        appendHeader(out);
+        appendSummary(out, summary.counts());
+        appendDurations(out, summary.durationsByType());
+        appendDetails(out, summary.problems(), summary.counts(), JobAnalysisState.OK);
+        out.append(DOUBLE_RULE).append('\n');
+    }
+
+    /**
+     * Appends the duration, state, description, pid, start and end of the job on one line.
+     */
+    private static void appendSlowJob(Appendable out, String prefix, JobAnalysis analysis) throws IOException {
+        JobExecution job = analysis.jobExecution();
+        out.append(prefix).append(job.getFormattedDuration())
+                .append(' ').append(analysis.state().toString())
+                .append(' ').append(job.jobDescription())
+                .append(", PID ").append(String.valueOf(job.pid()))
+                .append(", ").append(job.startTime().toString())
+                .append(" to ").append(job.endTime().toString())
+                .append('\n');
+    }
+
+    private static void appendHeader(Appendable out) throws IOException {
+        out.append('\n').append(DOUBLE_RULE).append('\n');
+        out.append("LOG MONITORING REPORT\n");
+        out.append(DOUBLE_RULE).append("\n\n");
+    }
+
+    private static void appendSummary(Appendable out, JobCounts counts) throws IOException {
+        out.append("Jobs summary\n");
         for (JobAnalysisState state : JobAnalysisState.values()) {
-            sb.append("   + ").append(stateToJobs.getOrDefault(state, List.of()).size())
-                    .append(' ').append(state).append('\n');
+            out.append("   + ").append(String.valueOf(counts.jobs(state)))
+                    .append(' ').append(state.toString()).append('\n');
+        }
+        out.append("A total of ").append(String.valueOf(counts.jobs())).append(" jobs completed").append('\n');
+        out.append('\n');
+    }
+
+    private void append(List<JobAnalysis> analyzedJobs, Appendable out) throws IOException {
+        JobCounts counts = JobCounts.of(analyzedJobs);
+        appendHeader(out);
+        appendSummary(out, counts);
+        appendDurations(out, durationsByType(analyzedJobs));
+
+        JobTimeline timeline = JobTimeline.of(analyzedJobs, TIMELINE_WINDOW_SECONDS);
+        if (timeline.jobs() > 0) {
+            appendTimeline(out, timeline);
         }
-        sb.append("A total of ").append(analyzedJobs.size() - danglingEntries.size()).append(" jobs completed").append('\n');
-        sb.append('\n');
 
-        if (!danglingEntries.isEmpty()) {
-            sb.append("Dangling entries:\n");
-            for (JobAnalysis analysis : danglingEntries) {
-                sb.append(" - ").append(analysis.reason()).append('\n');
+        appendDetails(out, analyzedJobs, counts, null);
+        out.append(DOUBLE_RULE).append('\n');
+    }
+
+    private static void appendDurations(Appendable out, Map<String, DurationHistogram> durationsByType) throws IOException {
+        if (durationsByType.isEmpty()) {
+            return;
+        }
+        out.append("Durations by job type\n");
+        for (Map.Entry<String, DurationHistogram> type : durationsByType.entrySet()) {
+            DurationHistogram durations = type.getValue();
+            out.append("   + ").append(type.getKey()).append(": ")
+                    .append(String.valueOf(durations.count())).append(" runs")
+                    .append(", p50 ").append(JobExecution.formatDuration(durations.percentile(50)))
+                    .append(", p95 ").append(JobExecution.formatDuration(durations.percentile(95)))
+                    .append(", p99 ").append(JobExecution.formatDuration(durations.percentile(99)))
+                    .append(", max ").append(JobExecution.formatDuration(durations.max()))
+                    .append('\n');
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Appends the dangling entries, then the jobs of each state but the skipped one.
+     */
+    private static void appendDetails(Appendable out, List<JobAnalysis> analyzedJobs, JobCounts counts,
+                                      JobAnalysisState skippedState) throws IOException {
+        if (counts.danglingEntries() > 0) {
+            out.append("Dangling entries:\n");
+            for (JobAnalysis analysis : analyzedJobs) {
+                if (analysis.hasDanglingEntry()) {
+                    out.append(" - ").append(analysis.reason()).append('\n');
+                }
             }
-            sb.append('\n');
+            out.append('\n');
         }
 
+        // one pass over the results per state keeps the jobs of a state in their order without grouping them first
         for (JobAnalysisState state : JobAnalysisState.values()) {
-            List<JobAnalysis> jobs = stateToJobs.getOrDefault(state, List.of())
-                    .stream()
-                    .toList();
-            if (!jobs.isEmpty()) {
-                sb.append("-".repeat(128)).append('\n');
-                sb.append(state).append(" jobs:\n");
-                sb.append("-".repeat(128)).append('\n');
-                for (JobAnalysis jobAnalysis : jobs) {
-                    sb.append(jobAnalysis.jobExecution()).append('\n');
+            if (state != skippedState && counts.jobs(state) > 0) {
+                out.append(RULE).append('\n');
+                out.append(state.toString()).append(" jobs:\n");
+                out.append(RULE).append('\n');
+                for (JobAnalysis jobAnalysis : analyzedJobs) {
+                    if (jobAnalysis.hasJobExecution() && jobAnalysis.state() == state) {
+                        out.append(jobAnalysis.jobExecution().toString()).append('\n');
+                    }
                 }
-                sb.append('\n');
+                out.append('\n');
             }
         }
+    }
 
-        sb.append("=".repeat(128)).append('\n');
-        return sb.toString();
+    /**
+     * Appends the peak concurrency, the busiest minutes for starts and ends, and the peak concurrency of every hour.
+     */
+    private static void appendTimeline(Appendable out, JobTimeline timeline) throws IOException {
+        int busiestStarts = 0;
+        int busiestEnds = 0;
+        for (int window = 1; window < timeline.windows(); window++) {
+            busiestStarts = timeline.starts(window) > timeline.starts(busiestStarts) ? window : busiestStarts;
+            busiestEnds = timeline.ends(window) > timeline.ends(busiestEnds) ? window : busiestEnds;
+        }
+        out.append("Concurrency\n");
+        out.append("   + Peak of ").append(String.valueOf(timeline.peakConcurrency())).append(" jobs running at ")
+                .append(timeline.peakTime().toString()).append('\n');
+        out.append("   + Most starts: ").append(String.valueOf(timeline.starts(busiestStarts))).append(" in the minute from ")
+                .append(timeline.windowStart(busiestStarts).toString())
+                .append(", most ends: ").append(String.valueOf(timeline.ends(busiestEnds))).append(" in the minute from ")
+                .append(timeline.windowStart(busiestEnds).toString()).append('\n');
+        out.append("   + Peak per hour:");
+        for (int minute = 0; minute < timeline.minutes(); ) {
+            LocalTime hour = timeline.minuteStart(minute).truncatedTo(ChronoUnit.HOURS);
+            int peak = 0;
+            for (; minute < timeline.minutes() && timeline.minuteStart(minute).truncatedTo(ChronoUnit.HOURS).equals(hour); minute++) {
+                peak = Math.max(peak, timeline.concurrency(minute));
+            }
+            out.append(' ').append(hour.toString()).append(' ').append(String.valueOf(peak));
+        }
+        out.append("\n\n");
     }
 
-}
+    /**
+     * @return Histogram of the durations of the completed jobs for each job description, sorted by description
+     */
+    private static Map<String, DurationHistogram> durationsByType(List<JobAnalysis> analyzedJobs) {
+        Map<String, DurationHistogram> durationsByType = new TreeMap<>();
+        for (JobAnalysis analysis : analyzedJobs) {
+            if (analysis.hasJobExecution()) {
+                JobExecution job = analysis.jobExecution();
+                durationsByType.computeIfAbsent(job.jobDescription(), jobDescription -> new DurationHistogram()).recordNanos(job.durationNanos());
+            }
+        }
+        return durationsByType;
+    }
 
+    /**
+     * Appends a whole report, so the same report can be built as a string or written to a stream.
+     */
+    @FunctionalInterface
+    private interface Report {
+        void appendTo(Appendable out) throws IOException;
+    }
+}
@@ -0,0 +1,138 @@
+package org.project.ingest;
+
+import org.project.model.LogEntry;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Drops entries equal in time, description, status and pid to an entry let through before, such as the lines repeated
+ * by overlapping rotated logs. Memory is fixed up front by the expected number of entries, whatever the input.
+ * <p>
+ * Every entry let through is added to a Bloom filter sized for the expected entries at about 29 bits per entry, for a
+ * false positive rate of one in a million, so most entries are told apart from all earlier ones by a few bit probes.
+ * Only an entry the filter has probably seen is looked up exactly, in a set of the last entries of a window: found
+ * there, it is dropped as a duplicate. Not found, it is a duplicate of an older entry or one of the rare false
+ * positives, and is dropped on the filter's word and counted as {@link #unconfirmed()}. Beyond the expected entries
+ * the false positive rate grows, so the filter should be sized for the whole input. Not thread safe.
+ */
+public final class DuplicateEntryFilter implements Predicate<LogEntry> {
+    private static final double FALSE_POSITIVE_RATE = 1e-6;
+    private static final int HASHES = 20;
+    private static final long MAX_BITS = (long) (Integer.MAX_VALUE - 8) * Long.SIZE;
+
+    private final long[] bits;
+    private final long bitCount;
+    private final long expectedEntries;
+    private final LogEntry[] window;
+    private final Set<LogEntry> windowEntries;
+    private int next;
+    private long entries;
+    private long dropped;
+    private long unconfirmed;
+
+    /**
+     * @param expectedEntries Number of entries the Bloom filter is sized for
+     * @param windowSize      Number of latest entries probable duplicates are confirmed exactly among
+     */
+    public DuplicateEntryFilter(long expectedEntries, int windowSize) {
+        if (expectedEntries <= 0) {
+            throw new IllegalArgumentException("expectedEntries must be positive");
+        }
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        double bitsPerEntry = -Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2));
+        double wanted = Math.ceil(expectedEntries * bitsPerEntry / Long.SIZE) * Long.SIZE;
+        if (wanted > MAX_BITS) {
+            throw new IllegalArgumentException(String.format("expectedEntries %d exceeds the largest Bloom filter", expectedEntries));
+        }
+        bitCount = (long) wanted;
+        bits = new long[(int) (bitCount / Long.SIZE)];
+        this.expectedEntries = expectedEntries;
+        window = new LogEntry[windowSize];
+        windowEntries = HashSet.newHashSet(windowSize);
+    }
+
+    /**
+     * @return Whether the entry is not a duplicate of an earlier one and should be kept
+     */
+    @Override
+    public boolean test(LogEntry entry) {
+        long hash = hash(entry);
+        // an odd step visits different bits for every probe
+        long step = mix(hash) | 1;
+        if (mightContain(hash, step)) {
+            dropped++;
+            if (!windowEntries.contains(entry)) {
+                unconfirmed++;
+            }
+            return false;
+        }
+        add(hash, step);
+        entries++;
+
+        LogEntry evicted = window[next];
+        if (evicted != null) {
+            windowEntries.remove(evicted);
+        }
+        window[next] = entry;
+        windowEntries.add(entry);
+        next = next + 1 == window.length ? 0 : next + 1;
+        return true;
+    }
+
+    private boolean mightContain(long hash, long step) {
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.unsignedMultiplyHigh(hash + i * step, bitCount);
+            if ((bits[(int) (bit >>> 6)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(long hash, long step) {
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.unsignedMultiplyHigh(hash + i * step, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static long hash(LogEntry entry) {
+        long hash = entry.timeNanos() * 0x9E3779B97F4A7C15L;
+        hash ^= (((long) entry.pid() << 1) | entry.status().ordinal()) * 0xC2B2AE3D27D4EB4FL;
+        hash ^= entry.jobDescription().hashCode() * 0x165667B19E3779F9L;
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 30;
+        hash *= 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 27;
+        hash *= 0x94D049BB133111EBL;
+        return hash ^ hash >>> 31;
+    }
+
+    /**
+     * @return Number of duplicate entries dropped so far
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * @return Number of the dropped entries not found in the window, dropped on the Bloom filter's word alone
+     */
+    public long unconfirmed() {
+        return unconfirmed;
+    }
+
+    /**
+     * @return Whether more entries were let through than the Bloom filter is sized for
+     */
+    public boolean overfull() {
+        return entries > expectedEntries;
+    }
+}
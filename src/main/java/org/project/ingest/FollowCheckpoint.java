@@ -0,0 +1,197 @@
+package org.project.ingest;
+
+import org.project.model.DayRollover;
+import org.project.model.JobEntryStatus;
+import org.project.model.LogEntry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of a follow run: the read position of every followed file and the STARTs of the jobs still open at that
+ * point, so a restarted run can continue from the offsets instead of reading the files again from the start.
+ * <p>
+ * Every file also saves the first and latest time read from it, so a restarted run continues its days rather than
+ * starting over on the first day, and STARTs are saved with their day, matching the ENDs read after the restart.
+ * Layout, big-endian: magic, version, file count, then per file its absolute path (modified UTF-8), offset, number
+ * of lines before the offset, first and latest time in nanos (-1 if nothing was read),
+ * then the description table (count, then descriptions), then the open job count and one 16 byte row per job
+ * (nanos since the midnight of the first day, pid, description id), in the order the jobs started.
+ * Version 1 saved neither line numbers nor times and saved STARTs at their time of day, it is read on the first day.
+ */
+public final class FollowCheckpoint {
+    static final int MAGIC = 0x4C4D4350;
+    static final int VERSION = 2;
+    private static final FilePosition START = new FilePosition(0, 0, -1, -1);
+
+    private final Map<Path, FilePosition> positions;
+    private final List<LogEntry> openStarts;
+
+    /**
+     * @param positions  Read positions of the followed files, keyed by path
+     * @param openStarts STARTs of the jobs not ended yet, in the order they started
+     */
+    public FollowCheckpoint(Map<Path, FilePosition> positions, List<LogEntry> openStarts) {
+        this.positions = new LinkedHashMap<>();
+        positions.forEach((logFilePath, position) -> this.positions.put(key(logFilePath), position));
+        this.openStarts = List.copyOf(openStarts);
+    }
+
+    /**
+     * @param offset      Offset of the first line not read yet
+     * @param lineNumber  Number of lines before the offset, so warnings about later lines point at the right line
+     * @param firstNanos  First time read from the file, or -1 if nothing was read
+     * @param latestNanos Latest time read from the file, with its day, or -1 if nothing was read
+     */
+    public record FilePosition(long offset, int lineNumber, long firstNanos, long latestNanos) {
+    }
+
+    private static Path key(Path logFilePath) {
+        return logFilePath.toAbsolutePath().normalize();
+    }
+
+    /**
+     * @return Saved offset of the file, or 0 if it was not followed
+     */
+    public long offset(Path logFilePath) {
+        return positions.getOrDefault(key(logFilePath), START).offset();
+    }
+
+    /**
+     * @return Number of lines before the saved offset of the file, or 0 if it was not followed
+     */
+    public int lineNumber(Path logFilePath) {
+        return positions.getOrDefault(key(logFilePath), START).lineNumber();
+    }
+
+    /**
+     * @return Rollover continuing the days read from the file before its saved offset, a new one if nothing was read
+     */
+    public DayRollover dayRollover(Path logFilePath) {
+        FilePosition position = positions.getOrDefault(key(logFilePath), START);
+        return position.firstNanos() < 0 ? new DayRollover() : new DayRollover(position.firstNanos(), position.latestNanos());
+    }
+
+    /**
+     * @return STARTs of the jobs open when the checkpoint was taken, in the order they started
+     */
+    public List<LogEntry> openStarts() {
+        return openStarts;
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file next to the target, then moves it over the target,
+     * so a crash leaves either the previous or the new checkpoint.
+     */
+    public void write(Path checkpointFile) throws IOException {
+        Path directory = checkpointFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, checkpointFile.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                writeTo(output);
+            }
+            Files.move(temporary, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void writeTo(DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(positions.size());
+        for (Map.Entry<Path, FilePosition> position : positions.entrySet()) {
+            output.writeUTF(position.getKey().toString());
+            output.writeLong(position.getValue().offset());
+            output.writeInt(position.getValue().lineNumber());
+            output.writeLong(position.getValue().firstNanos());
+            output.writeLong(position.getValue().latestNanos());
+        }
+
+        Map<String, Integer> descriptionIds = new HashMap<>();
+        List<String> descriptions = new ArrayList<>();
+        for (LogEntry start : openStarts) {
+            if (descriptionIds.putIfAbsent(start.jobDescription(), descriptions.size()) == null) {
+                descriptions.add(start.jobDescription());
+            }
+        }
+        output.writeInt(descriptions.size());
+        for (String description : descriptions) {
+            output.writeUTF(description);
+        }
+
+        output.writeInt(openStarts.size());
+        for (LogEntry start : openStarts) {
+            output.writeLong(start.timeNanos());
+            output.writeInt(start.pid());
+            output.writeInt(descriptionIds.get(start.jobDescription()));
+        }
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not a checkpoint of this or the previous version
+     */
+    public static FollowCheckpoint read(Path checkpointFile) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+            int version = input.readInt() == MAGIC ? input.readInt() : -1;
+            if (version != VERSION && version != 1) {
+                throw new IOException(String.format("%s is not a checkpoint of version %d", checkpointFile, VERSION));
+            }
+            int files = readCount(input, checkpointFile);
+            Map<Path, FilePosition> positions = new LinkedHashMap<>();
+            for (int i = 0; i < files; i++) {
+                Path logFilePath = Path.of(input.readUTF());
+                long offset = input.readLong();
+                // version 1 did not save line numbers or times, later lines are counted from the offset on the first day
+                FilePosition position = version == 1
+                        ? new FilePosition(offset, 0, -1, -1)
+                        : new FilePosition(offset, input.readInt(), input.readLong(), input.readLong());
+                if (position.firstNanos() < -1 || position.latestNanos() < position.firstNanos()) {
+                    throw new IOException(String.format("Corrupt times of %s in checkpoint %s", logFilePath, checkpointFile));
+                }
+                positions.put(logFilePath, position);
+            }
+
+            String[] descriptions = new String[readCount(input, checkpointFile)];
+            for (int i = 0; i < descriptions.length; i++) {
+                descriptions[i] = input.readUTF();
+            }
+
+            int openJobs = readCount(input, checkpointFile);
+            List<LogEntry> openStarts = new ArrayList<>(Math.min(openJobs, 1 << 16));
+            for (int i = 0; i < openJobs; i++) {
+                long timeNanos = input.readLong();
+                int pid = input.readInt();
+                int descriptionId = input.readInt();
+                if (descriptionId < 0 || descriptionId >= descriptions.length) {
+                    throw new IOException(String.format("Corrupt open job %d in checkpoint %s", i + 1, checkpointFile));
+                }
+                openStarts.add(new LogEntry(timeNanos, descriptions[descriptionId], JobEntryStatus.START, pid));
+            }
+            return new FollowCheckpoint(positions, openStarts);
+        } catch (EOFException e) {
+            throw new IOException(String.format("Checkpoint %s is truncated", checkpointFile), e);
+        }
+    }
+
+    private static int readCount(DataInputStream input, Path checkpointFile) throws IOException {
+        int count = input.readInt();
+        if (count < 0) {
+            throw new IOException(String.format("Corrupt count %d in checkpoint %s", count, checkpointFile));
+        }
+        return count;
+    }
+}
@@ -0,0 +1,66 @@
+package org.project.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.model.LogEntry;
+import org.project.monitor.LogMonitorEngine;
+import org.project.parser.LogFileTail;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes a {@link FollowCheckpoint} of a follower and the engine consuming its entries at most once per interval.
+ * Run it as the caught-up callback of {@link LogFileFollower#stream(Runnable)}, so the offsets and the open jobs agree.
+ * A checkpoint that cannot be written is logged and tried again at the next interval, following goes on.
+ */
+@Slf4j
+public final class FollowCheckpointer implements Runnable {
+    private final Path checkpointFile;
+    private final long intervalNanos;
+    private final LogFileFollower follower;
+    private final LogMonitorEngine engine;
+    private long lastWriteNanos;
+
+    public FollowCheckpointer(Path checkpointFile, Duration interval, LogFileFollower follower, LogMonitorEngine engine) {
+        this.checkpointFile = Objects.requireNonNull(checkpointFile);
+        this.intervalNanos = interval.toNanos();
+        this.follower = Objects.requireNonNull(follower);
+        this.engine = Objects.requireNonNull(engine);
+        this.lastWriteNanos = System.nanoTime();
+    }
+
+    /**
+     * Writes a checkpoint if the interval has elapsed since the last one.
+     */
+    @Override
+    public void run() {
+        if (System.nanoTime() - lastWriteNanos >= intervalNanos) {
+            write();
+        }
+    }
+
+    /**
+     * Writes a checkpoint now.
+     */
+    public void write() {
+        lastWriteNanos = System.nanoTime();
+        Map<Path, FollowCheckpoint.FilePosition> positions = new LinkedHashMap<>();
+        for (LogFileTail tail : follower.tails()) {
+            positions.put(tail.logFilePath(), new FollowCheckpoint.FilePosition(tail.offset(), tail.lineNumber(), tail.firstNanos(), tail.latestNanos()));
+        }
+        List<LogEntry> openStarts = new ArrayList<>(engine.openJobs());
+        engine.forEachOpenJob(openStarts::add);
+        try {
+            new FollowCheckpoint(positions, openStarts).write(checkpointFile);
+            log.debug("Checkpointed {} open jobs to {}", openStarts.size(), checkpointFile);
+        } catch (IOException e) {
+            log.warn("Failed to write checkpoint {}: {}", checkpointFile, e.getMessage());
+        }
+    }
+}
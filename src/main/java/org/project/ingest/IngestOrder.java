@@ -0,0 +1,15 @@
+package org.project.ingest;
+
+/**
+ * Selects how {@link LogFileIngestor} combines the entries of several log files.
+ */
+public enum IngestOrder {
+    /**
+     * Hands out the entries file after file, in the given file order.
+     */
+    FILE,
+    /**
+     * Merges the entries of all files by time, see {@link TimeOrderedMerge}.
+     */
+    TIME
+}
@@ -0,0 +1,221 @@
+package org.project.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.model.LogEntry;
+import org.project.parser.CsvLogParser;
+import org.project.parser.LogFileTail;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Follows growing log files and streams their entries as they are appended.
+ * The directories of the files are watched with a {@link WatchService}; the files are also polled
+ * at a fixed interval, which covers file systems where watch events are missing or unsupported.
+ * <p>
+ * The poll interval can be configured via system property:
+ * - log.follow.poll.interval.millis (default: 1000)
+ */
+@Slf4j
+public class LogFileFollower implements Closeable {
+    private final List<LogFileTail> tails = new ArrayList<>();
+    private final Duration pollInterval;
+    private final WatchService watchService;
+    private volatile boolean closed;
+    private volatile boolean streaming;
+    private boolean tailsClosed;
+
+    public LogFileFollower(CsvLogParser parser, List<Path> logFilePaths) {
+        this(parser, logFilePaths,
+                Duration.ofMillis(Long.parseLong(System.getProperty("log.follow.poll.interval.millis", "1000"))));
+    }
+
+    /**
+     * @param checkpoint Checkpoint of an earlier run, the files are read from its offsets
+     */
+    public LogFileFollower(CsvLogParser parser, List<Path> logFilePaths, FollowCheckpoint checkpoint) {
+        this(logFilePaths.stream().map(logFilePath -> new LogFileTail(parser, logFilePath, checkpoint.offset(logFilePath), checkpoint.lineNumber(logFilePath), checkpoint.dayRollover(logFilePath))).toList(),
+                Duration.ofMillis(Long.parseLong(System.getProperty("log.follow.poll.interval.millis", "1000"))));
+    }
+
+    public LogFileFollower(CsvLogParser parser, List<Path> logFilePaths, Duration pollInterval) {
+        this(logFilePaths.stream().map(logFilePath -> new LogFileTail(parser, logFilePath)).toList(), pollInterval);
+    }
+
+    /**
+     * @param tails Tails of the followed files, e.g. resumed from saved offsets
+     */
+    public LogFileFollower(List<LogFileTail> tails, Duration pollInterval) {
+        this.tails.addAll(tails);
+        this.pollInterval = Objects.requireNonNull(pollInterval);
+        this.watchService = watchDirectories(tails);
+    }
+
+    private static WatchService watchDirectories(List<LogFileTail> tails) {
+        Set<Path> directories = new HashSet<>();
+        for (LogFileTail tail : tails) {
+            directories.add(tail.logFilePath().toAbsolutePath().getParent());
+        }
+        WatchService watchService = null;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path directory : directories) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+            return watchService;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.info("Watching log directories is not available, polling only: {}", e.getMessage());
+            closeQuietly(watchService);
+            return null;
+        }
+    }
+
+    /**
+     * @return Tails of the followed files, holding their current offsets
+     */
+    public List<LogFileTail> tails() {
+        return List.copyOf(tails);
+    }
+
+    /**
+     * Returns the entries of the followed files as they are appended. The stream blocks while there is
+     * nothing new to read and only ends once the follower is closed or the reading thread is interrupted.
+     * Read errors are thrown as {@link UncheckedIOException}.
+     *
+     * @return Unbounded stream of parsed log entries
+     */
+    public Stream<LogEntry> stream() {
+        return stream(() -> { });
+    }
+
+    /**
+     * Same as {@link #stream()}, and runs the callback whenever every entry read so far has been consumed,
+     * before the files are read again, including every poll while there is nothing new.
+     * The offsets of the {@link #tails()} then match the consumed entries, e.g. for a {@link FollowCheckpoint}.
+     *
+     * @param caughtUp Runs on the consuming thread
+     * @return Unbounded stream of parsed log entries
+     */
+    public Stream<LogEntry> stream(Runnable caughtUp) {
+        streaming = true;
+        Queue<LogEntry> pending = new ArrayDeque<>();
+        Spliterator<LogEntry> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super LogEntry> action) {
+                while (pending.isEmpty()) {
+                    caughtUp.run();
+                    if (closed || Thread.currentThread().isInterrupted()) {
+                        // lines written before closing are still read
+                        pollAll(pending);
+                        closeTails();
+                        if (pending.isEmpty()) {
+                            return false;
+                        }
+                    } else if (pollAll(pending) == 0) {
+                        awaitChanges();
+                    }
+                }
+                action.accept(pending.poll());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private int pollAll(Queue<LogEntry> pending) {
+        synchronized (tails) {
+            if (tailsClosed) {
+                return 0;
+            }
+            int parsed = 0;
+            for (LogFileTail tail : tails) {
+                try {
+                    parsed += tail.poll(pending::add);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return parsed;
+        }
+    }
+
+    private void closeTails() {
+        synchronized (tails) {
+            if (tailsClosed) {
+                return;
+            }
+            tailsClosed = true;
+            for (LogFileTail tail : tails) {
+                closeQuietly(tail);
+            }
+        }
+    }
+
+    /**
+     * Waits for a change in the watched directories or for the poll interval to elapse.
+     * Returns early when interrupted or closed, leaving the final read to the caller.
+     */
+    private void awaitChanges() {
+        try {
+            if (watchService == null) {
+                Thread.sleep(pollInterval);
+                return;
+            }
+            WatchKey key = watchService.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+            while (key != null) {
+                key.pollEvents();
+                key.reset();
+                key = watchService.poll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.trace("Watch service closed while waiting for changes");
+        }
+    }
+
+    /**
+     * Ends the stream once it has read what was appended so far. Without a stream, releases the followed files right away.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(watchService);
+        if (!streaming) {
+            closeTails();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.debug("Failed to close {}", closeable, e);
+        }
+    }
+}
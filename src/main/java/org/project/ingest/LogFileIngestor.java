@@ -0,0 +1,218 @@
+package org.project.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.model.DayRollover;
+import org.project.model.LogEntry;
+import org.project.parser.CsvLogParser;
+import org.project.parser.ParseException;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads several log files into a single stream of entries, file after file in the given order or merged by time.
+ * <p>
+ * In {@link IngestOrder#FILE} order the files are read one after another.
+ * When more than one file may be open at a time, the next files are parsed ahead on virtual threads, one per file.
+ * Parsed files are handed out in the given order, so the combined stream is the same as with sequential reading,
+ * and a file is only started once an earlier one has been handed out, so at most the limit of files are parsed
+ * or held in memory at once. Every file continues the days of the file before it, so a file starting after midnight
+ * follows the one that ended before it.
+ * <p>
+ * In {@link IngestOrder#TIME} all files, or up to the limit if one is set, are open at once and read lazily, and a
+ * {@link TimeOrderedMerge} hands out the earliest next entry of the open files, opening the next file in the given
+ * order when one runs out. A job may thus start in one file and end in another file open at the same time. Only the next entry of each open
+ * file is held, and every file continues the days of the files before it, so rotated files may cross midnight.
+ * <p>
+ * Entries repeated by overlapping files can be dropped by a {@link DuplicateEntryFilter} before they are handed out.
+ * <p>
+ * The order, limit and deduplication can be configured via system properties:
+ * - log.ingest.order (default: file)
+ * - log.ingest.max.open.files (default: 1 in file order, streaming the files one after another, all files in time order)
+ * - log.ingest.dedup.expected.entries (default: 0, no deduplication), number of entries the Bloom filter is sized for
+ * - log.ingest.dedup.window (default: 65536), number of latest entries probable duplicates are confirmed among
+ */
+@Slf4j
+public class LogFileIngestor {
+    private static final int ALL_FILES = Integer.MAX_VALUE;
+    private static final int DEFAULT_DEDUP_WINDOW = 65_536;
+
+    private final CsvLogParser parser;
+    private final int maxOpenFiles;
+    private final IngestOrder order;
+    private final long dedupExpectedEntries;
+    private final int dedupWindow;
+
+    public LogFileIngestor(CsvLogParser parser) {
+        this(parser, Optional.ofNullable(System.getProperty("log.ingest.order")).map(order -> IngestOrder.valueOf(order.toUpperCase(Locale.ROOT))).orElse(IngestOrder.FILE));
+    }
+
+    /**
+     * Reads the files in the given order, with the limit of open files and deduplication from the system properties.
+     */
+    LogFileIngestor(CsvLogParser parser, IngestOrder order) {
+        this(parser, Optional.ofNullable(System.getProperty("log.ingest.max.open.files")).map(Integer::parseInt).orElse(order == IngestOrder.TIME ? ALL_FILES : 1),
+                order,
+                Optional.ofNullable(System.getProperty("log.ingest.dedup.expected.entries")).map(Long::parseLong).orElse(0L),
+                Optional.ofNullable(System.getProperty("log.ingest.dedup.window")).map(Integer::parseInt).orElse(DEFAULT_DEDUP_WINDOW));
+    }
+
+    public LogFileIngestor(CsvLogParser parser, int maxOpenFiles) {
+        this(parser, maxOpenFiles, IngestOrder.FILE);
+    }
+
+    /**
+     * @param maxOpenFiles Number of files parsed concurrently in {@link IngestOrder#FILE} order,
+     *                     or merged at once in {@link IngestOrder#TIME} order
+     */
+    public LogFileIngestor(CsvLogParser parser, int maxOpenFiles, IngestOrder order) {
+        this(parser, maxOpenFiles, order, 0);
+    }
+
+    /**
+     * @param dedupExpectedEntries Number of entries a {@link DuplicateEntryFilter} is sized for, 0 to keep duplicates
+     */
+    public LogFileIngestor(CsvLogParser parser, int maxOpenFiles, IngestOrder order, long dedupExpectedEntries) {
+        this(parser, maxOpenFiles, order, dedupExpectedEntries, DEFAULT_DEDUP_WINDOW);
+    }
+
+    /**
+     * @param dedupExpectedEntries Number of entries a {@link DuplicateEntryFilter} is sized for, 0 to keep duplicates
+     * @param dedupWindow          Number of latest entries probable duplicates are confirmed among
+     */
+    public LogFileIngestor(CsvLogParser parser, int maxOpenFiles, IngestOrder order, long dedupExpectedEntries, int dedupWindow) {
+        this.parser = Objects.requireNonNull(parser);
+        if (maxOpenFiles <= 0) {
+            throw new IllegalArgumentException("maxOpenFiles must be positive");
+        }
+        if (dedupExpectedEntries < 0) {
+            throw new IllegalArgumentException("dedupExpectedEntries cannot be negative");
+        }
+        if (dedupWindow <= 0) {
+            throw new IllegalArgumentException("dedupWindow must be positive");
+        }
+        this.maxOpenFiles = maxOpenFiles;
+        this.order = Objects.requireNonNull(order);
+        this.dedupExpectedEntries = dedupExpectedEntries;
+        this.dedupWindow = dedupWindow;
+    }
+
+    /**
+     * Returns the entries of all files, in time or file order. The stream must be closed, e.g. with try-with-resources.
+     *
+     * @param logFilePaths Paths of the log files, in the order their entries should appear in file order
+     *                     or at equal times in time order
+     * @return Stream of parsed log entries
+     */
+    public Stream<LogEntry> stream(List<Path> logFilePaths) {
+        Stream<LogEntry> entries = ordered(logFilePaths);
+        if (dedupExpectedEntries == 0) {
+            return entries;
+        }
+        DuplicateEntryFilter duplicates = new DuplicateEntryFilter(dedupExpectedEntries, dedupWindow);
+        return entries.filter(duplicates)
+                .onClose(() -> {
+                    log.info("Dropped {} duplicate log entries, {} of them older than the window", duplicates.dropped(), duplicates.unconfirmed());
+                    if (duplicates.overfull()) {
+                        log.warn("Read more log entries than the {} the duplicate filter is sized for, some may have been dropped wrongly", dedupExpectedEntries);
+                    }
+                });
+    }
+
+    private Stream<LogEntry> ordered(List<Path> logFilePaths) {
+        if (order == IngestOrder.TIME && logFilePaths.size() > 1) {
+            return merge(logFilePaths);
+        }
+        // every file counts its days from its own start, so a file after midnight continues the days of the one before
+        DayRollover days = new DayRollover();
+        return inFileOrder(logFilePaths).map(days::resolve);
+    }
+
+    private Stream<LogEntry> inFileOrder(List<Path> logFilePaths) {
+        if (maxOpenFiles == 1 || logFilePaths.size() == 1) {
+            return logFilePaths.stream().flatMap(this::timedStream);
+        }
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Queue<Path> pendingFiles = new ArrayDeque<>(logFilePaths);
+        Queue<ParsedFile> parsedFiles = new ArrayDeque<>(maxOpenFiles);
+
+        // a file is submitted once the one handed out before it is consumed, so at most maxOpenFiles are held at once
+        Spliterator<List<LogEntry>> inFileOrder = new Spliterators.AbstractSpliterator<>(logFilePaths.size(), Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super List<LogEntry>> action) {
+                while (parsedFiles.size() < maxOpenFiles && !pendingFiles.isEmpty()) {
+                    Path logFilePath = pendingFiles.poll();
+                    parsedFiles.add(new ParsedFile(logFilePath, executor.submit(() -> parseFile(logFilePath))));
+                }
+                ParsedFile parsedFile = parsedFiles.poll();
+                if (parsedFile == null) {
+                    return false;
+                }
+                action.accept(parsedFile.await());
+                return true;
+            }
+        };
+        return StreamSupport.stream(inFileOrder, false)
+                .flatMap(List::stream)
+                .onClose(executor::shutdownNow);
+    }
+
+    private Stream<LogEntry> merge(List<Path> logFilePaths) {
+        List<Supplier<Stream<LogEntry>>> sources = new ArrayList<>(logFilePaths.size());
+        for (Path logFilePath : logFilePaths) {
+            sources.add(() -> timedStream(logFilePath));
+        }
+        return TimeOrderedMerge.merge(sources, maxOpenFiles);
+    }
+
+    /**
+     * @return The entries of the file, logging how many were read and how long it took once the stream is closed
+     */
+    private Stream<LogEntry> timedStream(Path logFilePath) {
+        log.info("Reading log file: {}", logFilePath);
+        long start = System.nanoTime();
+        AtomicLong entries = new AtomicLong();
+        return parser.stream(logFilePath)
+                .peek(entry -> entries.incrementAndGet())
+                .onClose(() -> log.info("Read {} log entries from {} in {} ms", entries.get(), logFilePath, (System.nanoTime() - start) / 1_000_000));
+    }
+
+    private List<LogEntry> parseFile(Path logFilePath) throws ParseException {
+        log.info("Reading log file: {}", logFilePath);
+        long start = System.nanoTime();
+        List<LogEntry> entries = parser.parse(logFilePath);
+        log.info("Parsed {} log entries from {} in {} ms", entries.size(), logFilePath, (System.nanoTime() - start) / 1_000_000);
+        return entries;
+    }
+
+    private record ParsedFile(Path logFilePath, Future<List<LogEntry>> entries) {
+        private List<LogEntry> await() {
+            try {
+                return entries.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(String.format("Interrupted while reading log file %s", logFilePath), e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(String.format("Failed to read log file %s", logFilePath), e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.project.ingest;
+
+import org.project.model.DayRollover;
+import org.project.model.LogEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Merges the entries of several streams, each in time order, into one stream in time order.
+ * <p>
+ * Only the next entry of every open stream is held, in a priority queue keyed by its time, so memory grows with
+ * the number of open streams rather than the number of entries. At most a given number of streams are open at once:
+ * the next stream, in the given order, is opened when one runs out, so the merge is exact as long as every stream
+ * only overlaps in time with the streams opened alongside it, as rotated files do with their neighbours.
+ * Entries logged at the same time are handed out in stream order.
+ * <p>
+ * Every stream counts its days from its own first entry. A stream is moved to the days of the streams before it
+ * by a {@link DayRollover} fed with the entries handed out so far and the first entry of each opened stream, so
+ * a file starting after midnight follows the file that ended before it.
+ */
+final class TimeOrderedMerge extends Spliterators.AbstractSpliterator<LogEntry> {
+    private static final Comparator<Head> BY_TIME = Comparator.comparingLong((Head head) -> head.entry.timeNanos())
+            .thenComparingInt(head -> head.index);
+    private static final long NANOS_PER_DAY = TimeUnit.DAYS.toNanos(1);
+
+    private final List<Supplier<Stream<LogEntry>>> sources;
+    private final int maxOpenStreams;
+    private final PriorityQueue<Head> heads;
+    private final List<Stream<LogEntry>> openStreams = new ArrayList<>();
+    private final DayRollover days = new DayRollover();
+    private int nextSource;
+
+    private TimeOrderedMerge(List<Supplier<Stream<LogEntry>>> sources, int maxOpenStreams) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.sources = sources;
+        this.maxOpenStreams = maxOpenStreams;
+        heads = new PriorityQueue<>(Math.max(1, Math.min(sources.size(), maxOpenStreams)), BY_TIME);
+    }
+
+    /**
+     * Returns the entries of the streams merged by time; closing it closes every stream opened.
+     *
+     * @param sources        Opens the streams of entries, each in time order, in the order they are to be opened
+     * @param maxOpenStreams Number of streams open at once
+     * @return Stream of all entries in time order
+     */
+    static Stream<LogEntry> merge(List<Supplier<Stream<LogEntry>>> sources, int maxOpenStreams) {
+        if (maxOpenStreams <= 0) {
+            throw new IllegalArgumentException("maxOpenStreams must be positive");
+        }
+        TimeOrderedMerge merge = new TimeOrderedMerge(List.copyOf(sources), maxOpenStreams);
+        return StreamSupport.stream(merge, false).onClose(merge::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super LogEntry> action) {
+        while (heads.size() < maxOpenStreams && nextSource < sources.size()) {
+            open(nextSource++);
+        }
+        Head head = heads.poll();
+        if (head == null) {
+            return false;
+        }
+        LogEntry entry = head.entry;
+        days.resolve(entry.timeNanos());
+        if (head.advance()) {
+            heads.add(head);
+        } else {
+            head.stream.close();
+        }
+        action.accept(entry);
+        return true;
+    }
+
+    private void open(int index) {
+        Stream<LogEntry> stream = sources.get(index).get();
+        openStreams.add(stream);
+        Head head = new Head(stream, index);
+        if (!head.advance()) {
+            stream.close();
+            return;
+        }
+        LogEntry first = days.resolve(head.entry);
+        head.days = Math.floorDiv(first.timeNanos() - head.entry.timeNanos(), NANOS_PER_DAY);
+        head.entry = first;
+        heads.add(head);
+    }
+
+    private void close() {
+        RuntimeException failure = null;
+        for (Stream<LogEntry> stream : openStreams) {
+            try {
+                stream.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class Head implements Consumer<LogEntry> {
+        private final Stream<LogEntry> stream;
+        private final Spliterator<LogEntry> source;
+        private final int index;
+        private long days;
+        private LogEntry entry;
+
+        private Head(Stream<LogEntry> stream, int index) {
+            this.stream = stream;
+            this.source = stream.spliterator();
+            this.index = index;
+        }
+
+        /**
+         * @return Whether the source had another entry, now the head
+         */
+        private boolean advance() {
+            return source.tryAdvance(this);
+        }
+
+        @Override
+        public void accept(LogEntry next) {
+            entry = next.plusDays(days);
+        }
+    }
+}
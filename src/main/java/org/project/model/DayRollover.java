@@ -0,0 +1,92 @@
+package org.project.model;
+
+/**
+ * Tells the day of times of day read in input order, so a log running past midnight keeps counting up rather than
+ * wrapping at 24 hours. Only a time more than 12 hours before the latest time seen starts a new day; one less than
+ * 12 hours before it is the same day logged a little out of order. A time more than 12 hours after the latest one is
+ * taken as logged out of order on the previous day only if that is not before the first time seen, so the first
+ * entries of a log never end up before its start and a long quiet gap stays on the same day.
+ * <p>
+ * Times already carrying a day are shifted only if they are more than 12 hours before the latest time, so resolving
+ * a sequence twice changes nothing, and a sequence of files each starting on their first day is chained into
+ * consecutive days. A rollover can be continued from the {@link #firstNanos()} and {@link #latestNanos()} of an
+ * earlier one, e.g. when a followed file is read on after a restart. Not thread safe.
+ */
+public final class DayRollover {
+    private static final long HALF_DAY_NANOS = LogEntry.NANOS_PER_DAY / 2;
+
+    private long days;
+    private long firstNanos;
+    private long latestNanos;
+    private boolean started;
+
+    public DayRollover() {
+    }
+
+    /**
+     * Continues the days of an earlier rollover.
+     *
+     * @param firstNanos  The {@link #firstNanos()} of the earlier rollover
+     * @param latestNanos The {@link #latestNanos()} of the earlier rollover
+     */
+    public DayRollover(long firstNanos, long latestNanos) {
+        if (firstNanos < 0 || latestNanos < firstNanos) {
+            throw new IllegalArgumentException("firstNanos cannot be negative or after latestNanos");
+        }
+        this.started = true;
+        this.firstNanos = firstNanos;
+        this.latestNanos = latestNanos;
+        this.days = Math.floorDiv(latestNanos, LogEntry.NANOS_PER_DAY);
+    }
+
+    /**
+     * @return First time seen, in nanos since the midnight starting its day, or -1 if none was seen yet
+     */
+    public long firstNanos() {
+        return started ? firstNanos : -1;
+    }
+
+    /**
+     * @return Latest time seen, in nanos since the midnight starting the first day, or -1 if none was seen yet
+     */
+    public long latestNanos() {
+        return started ? latestNanos : -1;
+    }
+
+    /**
+     * @param timeNanos Nanos since the midnight starting some day
+     * @return Nanos since the midnight starting the first day seen
+     */
+    public long resolve(long timeNanos) {
+        return timeNanos + daysBefore(timeNanos) * LogEntry.NANOS_PER_DAY;
+    }
+
+    /**
+     * @return The entry moved to its day, the same instance if it is already on it
+     */
+    public LogEntry resolve(LogEntry entry) {
+        return entry.plusDays(daysBefore(entry.timeNanos()));
+    }
+
+    private long daysBefore(long timeNanos) {
+        if (!started) {
+            started = true;
+            firstNanos = timeNanos;
+            latestNanos = timeNanos;
+            return 0;
+        }
+        long sinceLatest = timeNanos + days * LogEntry.NANOS_PER_DAY - latestNanos;
+        if (sinceLatest < -HALF_DAY_NANOS || sinceLatest > HALF_DAY_NANOS) {
+            // whole days that bring the time closest to the latest one
+            long closestDays = days - Math.floorDiv(sinceLatest + HALF_DAY_NANOS, LogEntry.NANOS_PER_DAY);
+            if (sinceLatest < 0 || timeNanos + closestDays * LogEntry.NANOS_PER_DAY >= firstNanos) {
+                days = closestDays;
+                sinceLatest = timeNanos + days * LogEntry.NANOS_PER_DAY - latestNanos;
+            }
+        }
+        if (sinceLatest > 0) {
+            latestNanos += sinceLatest;
+        }
+        return days;
+    }
+}
@@ -0,0 +1,112 @@
+package org.project.model;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Streaming histogram of durations with log-linear buckets, in the style of HdrHistogram: durations are counted
+ * in milliseconds, exactly below 32 ms and in 32 buckets per power of two above, so a percentile is off by at most
+ * about 3%. Memory depends only on the longest duration recorded, at most 15 KB, never on the number of durations.
+ * Histograms can be merged, e.g. to combine the histograms built by several threads. Not thread safe.
+ */
+public final class DurationHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private long[] counts = new long[SUB_BUCKETS];
+    private long totalCount;
+    private long maxMillis;
+
+    /**
+     * @throws IllegalArgumentException if the duration is negative
+     */
+    public void record(Duration duration) {
+        recordNanos(duration.toNanos());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the duration is negative
+     */
+    public void recordNanos(long durationNanos) {
+        if (durationNanos < 0) {
+            throw new IllegalArgumentException(String.format("Duration cannot be negative: %s", Duration.ofNanos(durationNanos)));
+        }
+        long millis = durationNanos / NANOS_PER_MILLI;
+        int index = bucketIndex(millis);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, index + 1);
+        }
+        counts[index]++;
+        totalCount++;
+        maxMillis = Math.max(maxMillis, millis);
+    }
+
+    /**
+     * Adds the durations recorded by the other histogram to this one.
+     */
+    public void merge(DurationHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        maxMillis = Math.max(maxMillis, other.maxMillis);
+    }
+
+    public long count() {
+        return totalCount;
+    }
+
+    public Duration max() {
+        return Duration.ofMillis(maxMillis);
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100
+     * @return The highest duration counted in the same bucket as the duration at the percentile, zero if empty
+     */
+    public Duration percentile(double percentile) {
+        return Duration.ofNanos(percentileNanos(percentile));
+    }
+
+    /**
+     * Same as {@link #percentile(double)} in nanos.
+     */
+    public long percentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(String.format("Percentile must be between 0 and 100, got %s", percentile));
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestInBucket(i), maxMillis) * NANOS_PER_MILLI;
+            }
+        }
+        return maxMillis * NANOS_PER_MILLI;
+    }
+
+    static int bucketIndex(long millis) {
+        if (millis < SUB_BUCKETS) {
+            return (int) millis;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(millis) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (millis >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestInBucket(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
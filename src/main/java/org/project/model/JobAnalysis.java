@@ -41,6 +41,15 @@ public record JobAnalysis(
         return new JobAnalysis(null, logEntry, JobAnalysisState.FAULTY, reason);
     }
 
+    /**
+     * A job still running past a threshold, reported before its END arrives. The START entry is its dangling entry.
+     */
+    public static JobAnalysis overdue(LogEntry startEntry, JobAnalysisState state, String reason) {
+        Objects.requireNonNull(startEntry, "startEntry cannot be null");
+        Objects.requireNonNull(reason, "reason cannot be null for overdue job");
+        return new JobAnalysis(null, startEntry, state, reason);
+    }
+
     public boolean hasJobExecution() {
         return jobExecution != null;
     }
@@ -0,0 +1,52 @@
+package org.project.model;
+
+import java.util.function.Consumer;
+
+/**
+ * Number of completed jobs in each state and of dangling entries among the analysis results taken.
+ * Not thread safe.
+ */
+public final class JobCounts implements Consumer<JobAnalysis> {
+    private final long[] jobsPerState = new long[JobAnalysisState.values().length];
+    private long danglingEntries;
+
+    /**
+     * @return The counts of the results
+     */
+    public static JobCounts of(Iterable<JobAnalysis> analyzedJobs) {
+        JobCounts counts = new JobCounts();
+        analyzedJobs.forEach(counts);
+        return counts;
+    }
+
+    @Override
+    public void accept(JobAnalysis analysis) {
+        if (analysis.hasJobExecution()) {
+            jobsPerState[analysis.state().ordinal()]++;
+        } else {
+            danglingEntries++;
+        }
+    }
+
+    /**
+     * @return Number of completed jobs in the state
+     */
+    public long jobs(JobAnalysisState state) {
+        return jobsPerState[state.ordinal()];
+    }
+
+    /**
+     * @return Number of completed jobs
+     */
+    public long jobs() {
+        long jobs = 0;
+        for (long count : jobsPerState) {
+            jobs += count;
+        }
+        return jobs;
+    }
+
+    public long danglingEntries() {
+        return danglingEntries;
+    }
+}
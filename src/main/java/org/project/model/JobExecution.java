@@ -1,16 +1,16 @@
 package org.project.model;
 
 import java.time.Duration;
-import java.time.temporal.Temporal;
+import java.time.LocalTime;
 
 /**
  * Represents a complete job execution from START to END.
- * Contains the start and end log entries, and calculated duration.
+ * Contains the start and end log entries, and calculated duration in nanos.
  */
 public record JobExecution(
     LogEntry startEntry,
     LogEntry endEntry,
-    Duration duration
+    long durationNanos
 ) {
     public JobExecution(LogEntry startEntry, LogEntry endEntry) {
         this(startEntry, endEntry, calculateDurationWithValidation(startEntry, endEntry));
@@ -20,7 +20,7 @@ public record JobExecution(
      * Validates the start and end entries, then calculates the duration.
      * This ensures validation happens before duration calculation.
      */
-    private static Duration calculateDurationWithValidation(LogEntry startEntry, LogEntry endEntry) {
+    private static long calculateDurationWithValidation(LogEntry startEntry, LogEntry endEntry) {
         if (startEntry == null) {
             throw new IllegalArgumentException("startEntry cannot be null");
         }
@@ -56,28 +56,65 @@ public record JobExecution(
         return startEntry.jobDescription();
     }
 
-    public Temporal startTime() {
+    public LocalTime startTime() {
         return startEntry.timestamp();
     }
 
-    public Temporal endTime() {
+    public LocalTime endTime() {
         return endEntry.timestamp();
     }
 
+    /**
+     * @return The duration, created for display
+     */
+    public Duration duration() {
+        return Duration.ofNanos(durationNanos);
+    }
+
     /**
      * Calculates the duration between start and end entries.
-     * Handles the case where the end time is on the next day (crosses midnight) when date information is not available
+     * Handles the case where the end time is on a later day (crosses midnight) when the entries were not moved to
+     * their days by a {@link DayRollover}
      */
-    private static Duration calculateDuration(LogEntry startEntry, LogEntry endEntry) {
-        Duration duration = Duration.between(startEntry.timestamp(), endEntry.timestamp());
-        if (duration.isNegative()) {
-            return duration.plusHours(24);
+    private static long calculateDuration(LogEntry startEntry, LogEntry endEntry) {
+        long durationNanos = endEntry.timeNanos() - startEntry.timeNanos();
+        if (durationNanos < 0) {
+            return Math.floorMod(durationNanos, LogEntry.NANOS_PER_DAY);
         }
-        return duration;
+        return durationNanos;
+    }
+
+    /**
+     * @return The entries and the duration as the record printed them when it held a {@link Duration}
+     */
+    @Override
+    public String toString() {
+        return "JobExecution[startEntry=" + startEntry + ", endEntry=" + endEntry + ", duration=" + duration() + "]";
     }
 
     public String getFormattedDuration() {
-        return String.format("%02d:%02d", duration.toMinutes(), duration.getSeconds() % 60);
+        return formatDuration(durationNanos);
+    }
+
+    /**
+     * @return The duration as minutes and seconds, e.g. 07:05
+     */
+    public static String formatDuration(Duration duration) {
+        return formatDuration(duration.toNanos());
+    }
+
+    private static String formatDuration(long durationNanos) {
+        long seconds = durationNanos / LogEntry.NANOS_PER_SECOND;
+        StringBuilder formatted = new StringBuilder(8);
+        appendTwoDigits(formatted, seconds / 60).append(':');
+        return appendTwoDigits(formatted, seconds % 60).toString();
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder builder, long value) {
+        if (value < 10) {
+            builder.append('0');
+        }
+        return builder.append(value);
     }
 }
 
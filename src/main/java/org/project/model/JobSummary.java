@@ -0,0 +1,52 @@
+package org.project.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Totals of analysis results taken as they arrive, keeping in full only the results worth reading: WARNING and
+ * FAULTY jobs and dangling entries. OK jobs are only counted and recorded in the duration histogram of their job
+ * description, so memory grows with the problems and the number of job descriptions instead of the number of jobs.
+ * Not thread safe.
+ */
+public final class JobSummary implements Consumer<JobAnalysis> {
+    private final JobCounts counts = new JobCounts();
+    private final Map<String, DurationHistogram> durationsByType = new TreeMap<>();
+    private final List<JobAnalysis> problems = new ArrayList<>();
+
+    @Override
+    public void accept(JobAnalysis analysis) {
+        counts.accept(analysis);
+        if (!analysis.hasJobExecution()) {
+            problems.add(analysis);
+            return;
+        }
+        JobExecution job = analysis.jobExecution();
+        durationsByType.computeIfAbsent(job.jobDescription(), jobDescription -> new DurationHistogram()).recordNanos(job.durationNanos());
+        if (analysis.state() != JobAnalysisState.OK) {
+            problems.add(analysis);
+        }
+    }
+
+    public JobCounts counts() {
+        return counts;
+    }
+
+    /**
+     * @return Histogram of the durations of the completed jobs for each job description, sorted by description
+     */
+    public Map<String, DurationHistogram> durationsByType() {
+        return Collections.unmodifiableMap(durationsByType);
+    }
+
+    /**
+     * @return The WARNING and FAULTY jobs and the dangling entries, in the order they were analyzed
+     */
+    public List<JobAnalysis> problems() {
+        return Collections.unmodifiableList(problems);
+    }
+}
@@ -0,0 +1,197 @@
+package org.project.model;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * How many jobs ran at the same time and how many started and ended over time, computed from the intervals of
+ * completed jobs in one sweep over their sorted start and end times.
+ * <p>
+ * Times are whole seconds since the midnight starting the log's first day, so a log covering several days keeps
+ * counting up through each midnight. A job runs from its start second up to, not including, its end second.
+ * Starts and ends are kept in primitive arrays, 8 bytes per job while building and none afterwards.
+ */
+public final class JobTimeline {
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private final int jobs;
+    private final int peakConcurrency;
+    private final int peakSecond;
+    private final int firstMinute;
+    private final int[] concurrencyPerMinute;
+    private final int windowSeconds;
+    private final int firstWindow;
+    private final int[] startsPerWindow;
+    private final int[] endsPerWindow;
+
+    private JobTimeline(int[] starts, int[] ends, int jobs, int windowSeconds) {
+        this.jobs = jobs;
+        this.windowSeconds = windowSeconds;
+        if (jobs == 0) {
+            peakConcurrency = 0;
+            peakSecond = 0;
+            firstMinute = 0;
+            concurrencyPerMinute = new int[0];
+            firstWindow = 0;
+            startsPerWindow = new int[0];
+            endsPerWindow = new int[0];
+            return;
+        }
+        Arrays.sort(starts, 0, jobs);
+        Arrays.sort(ends, 0, jobs);
+        int first = starts[0];
+        int last = ends[jobs - 1];
+        firstMinute = Math.floorDiv(first, SECONDS_PER_MINUTE);
+        concurrencyPerMinute = new int[Math.floorDiv(last, SECONDS_PER_MINUTE) - firstMinute + 1];
+        firstWindow = Math.floorDiv(first, windowSeconds);
+        startsPerWindow = new int[Math.floorDiv(last, windowSeconds) - firstWindow + 1];
+        endsPerWindow = new int[startsPerWindow.length];
+
+        int running = 0;
+        int peak = 0;
+        int peakAt = first;
+        int nextStart = 0;
+        int nextEnd = 0;
+        int minute = firstMinute;
+        while (nextStart < jobs || nextEnd < jobs) {
+            int second = nextEnd == jobs || nextStart < jobs && starts[nextStart] < ends[nextEnd] ? starts[nextStart] : ends[nextEnd];
+            // minutes entered before this event keep the number of jobs running since the last event
+            for (; minute < Math.floorDiv(second, SECONDS_PER_MINUTE); minute++) {
+                concurrencyPerMinute[minute + 1 - firstMinute] = (minute + 1) * SECONDS_PER_MINUTE < second ? running : 0;
+            }
+            for (; nextEnd < jobs && ends[nextEnd] == second; nextEnd++) {
+                running--;
+                endsPerWindow[Math.floorDiv(second, windowSeconds) - firstWindow]++;
+            }
+            for (; nextStart < jobs && starts[nextStart] == second; nextStart++) {
+                running++;
+                startsPerWindow[Math.floorDiv(second, windowSeconds) - firstWindow]++;
+            }
+            int index = minute - firstMinute;
+            concurrencyPerMinute[index] = Math.max(concurrencyPerMinute[index], running);
+            if (running > peak) {
+                peak = running;
+                peakAt = second;
+            }
+        }
+        peakConcurrency = peak;
+        peakSecond = peakAt;
+    }
+
+    /**
+     * @param windowSeconds Length of the tumbling windows starts and ends are counted in
+     * @return The timeline of the completed jobs among the analyzed ones
+     */
+    public static JobTimeline of(Iterable<JobAnalysis> analyzedJobs, int windowSeconds) {
+        Builder builder = new Builder();
+        for (JobAnalysis analysis : analyzedJobs) {
+            if (analysis.hasJobExecution()) {
+                builder.add(analysis.jobExecution());
+            }
+        }
+        return builder.build(windowSeconds);
+    }
+
+    /**
+     * @return Number of jobs in the timeline
+     */
+    public int jobs() {
+        return jobs;
+    }
+
+    /**
+     * @return Highest number of jobs running at the same time
+     */
+    public int peakConcurrency() {
+        return peakConcurrency;
+    }
+
+    /**
+     * @return First time the peak concurrency was reached
+     */
+    public LocalTime peakTime() {
+        return timeOf(peakSecond);
+    }
+
+    /**
+     * @return Number of minutes covered, from the minute of the first start to the minute of the last end
+     */
+    public int minutes() {
+        return concurrencyPerMinute.length;
+    }
+
+    public LocalTime minuteStart(int minute) {
+        return timeOf((firstMinute + minute) * SECONDS_PER_MINUTE);
+    }
+
+    /**
+     * @return Highest number of jobs running at the same time during the minute
+     */
+    public int concurrency(int minute) {
+        return concurrencyPerMinute[minute];
+    }
+
+    public int windowSeconds() {
+        return windowSeconds;
+    }
+
+    /**
+     * @return Number of windows covered, from the window of the first start to the window of the last end
+     */
+    public int windows() {
+        return startsPerWindow.length;
+    }
+
+    public LocalTime windowStart(int window) {
+        return timeOf((firstWindow + window) * windowSeconds);
+    }
+
+    public int starts(int window) {
+        return startsPerWindow[window];
+    }
+
+    public int ends(int window) {
+        return endsPerWindow[window];
+    }
+
+    private static LocalTime timeOf(int second) {
+        return LocalTime.ofSecondOfDay(Math.floorMod(second, 24 * 3600));
+    }
+
+    /**
+     * Collects job intervals. Not thread safe.
+     */
+    public static final class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private int[] starts = new int[INITIAL_CAPACITY];
+        private int[] ends = new int[INITIAL_CAPACITY];
+        private int size;
+
+        public Builder add(JobExecution job) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            int start = Math.toIntExact(Math.floorDiv(job.startEntry().timeNanos(), LogEntry.NANOS_PER_SECOND));
+            starts[size] = start;
+            ends[size] = Math.toIntExact(start + job.durationNanos() / LogEntry.NANOS_PER_SECOND);
+            size++;
+            return this;
+        }
+
+        /**
+         * @param windowSeconds Length of the tumbling windows starts and ends are counted in
+         */
+        public JobTimeline build(int windowSeconds) {
+            if (windowSeconds <= 0) {
+                throw new IllegalArgumentException("windowSeconds must be positive");
+            }
+            JobTimeline timeline = new JobTimeline(starts, ends, size, windowSeconds);
+            starts = new int[INITIAL_CAPACITY];
+            ends = new int[INITIAL_CAPACITY];
+            size = 0;
+            return timeline;
+        }
+    }
+}
@@ -1,17 +1,52 @@
 package org.project.model;
 
+import java.time.LocalTime;
 import java.time.temporal.Temporal;
 import java.util.StringJoiner;
 
 /**
- * Represents a single log entry from the CSV log file
+ * Represents a single log entry from the CSV log file.
+ * <p>
+ * The log only has times of day, so the time is kept as nanos since the midnight starting the log's first day:
+ * parsers create entries on that first day and a {@link DayRollover} moves them to later days in input order.
  */
 public record LogEntry(
-    Temporal timestamp,
+    long timeNanos,
     String jobDescription,
     JobEntryStatus status,
     int pid
 ) {
+    static final long NANOS_PER_SECOND = 1_000_000_000L;
+    static final long NANOS_PER_DAY = 24 * 3600 * NANOS_PER_SECOND;
+
+    /**
+     * @throws IllegalArgumentException if the timestamp is not a {@link LocalTime}
+     */
+    public LogEntry(Temporal timestamp, String jobDescription, JobEntryStatus status, int pid) {
+        this(nanoOfDay(timestamp), jobDescription, status, pid);
+    }
+
+    private static long nanoOfDay(Temporal timestamp) {
+        if (!(timestamp instanceof LocalTime time)) {
+            throw new IllegalArgumentException(String.format("Only times of day can be logged, got %s", timestamp));
+        }
+        return time.toNanoOfDay();
+    }
+
+    /**
+     * @return The time of day the entry was logged at, created for display
+     */
+    public LocalTime timestamp() {
+        return LocalTime.ofNanoOfDay(Math.floorMod(timeNanos, NANOS_PER_DAY));
+    }
+
+    /**
+     * @return Same entry logged the given number of days later
+     */
+    public LogEntry plusDays(long days) {
+        return days == 0 ? this : new LogEntry(timeNanos + days * NANOS_PER_DAY, jobDescription, status, pid);
+    }
+
     public boolean isStart() {
         return status == JobEntryStatus.START;
     }
@@ -23,11 +58,10 @@ public record LogEntry(
     @Override
     public String toString() {
         return new StringJoiner(",")
-            .add(timestamp.toString())
+            .add(timestamp().toString())
             .add(jobDescription)
             .add(status.toString())
             .add(String.valueOf(pid))
             .toString();
     }
 }
-
@@ -0,0 +1,157 @@
+package org.project.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Columnar storage for log entries: one primitive array per field, about 13 bytes per entry,
+ * with job descriptions stored once and referenced by id.
+ * Times are kept as whole seconds since the midnight starting the log's first day, so up to about 68 years of
+ * whole-second times can be stored.
+ * {@link LogEntry} views are created on demand by {@link #entry(int)}. Not thread safe.
+ */
+public final class LogEntryStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final JobEntryStatus[] STATUSES = JobEntryStatus.values();
+
+    private int[] seconds;
+    private int[] pids;
+    private byte[] statuses;
+    private int[] descriptionIds;
+    private int size;
+    private final List<String> descriptions = new ArrayList<>();
+    private final Map<String, Integer> descriptionToId = new HashMap<>();
+
+    public LogEntryStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public LogEntryStore(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative");
+        }
+        seconds = new int[initialCapacity];
+        pids = new int[initialCapacity];
+        statuses = new byte[initialCapacity];
+        descriptionIds = new int[initialCapacity];
+    }
+
+    /**
+     * @throws IllegalArgumentException if the time is not a whole second or out of range
+     */
+    public void add(LogEntry entry) {
+        add(second(entry), entry.jobDescription(), entry.status(), entry.pid());
+    }
+
+    /**
+     * @param second Seconds since the midnight starting the log's first day
+     */
+    public void add(int second, String jobDescription, JobEntryStatus status, int pid) {
+        if (second < 0) {
+            throw new IllegalArgumentException(String.format("Second out of range: %d", second));
+        }
+        if (size == pids.length) {
+            grow();
+        }
+        seconds[size] = second;
+        pids[size] = pid;
+        statuses[size] = (byte) status.ordinal();
+        descriptionIds[size] = descriptionId(jobDescription);
+        size++;
+    }
+
+    private static int second(LogEntry entry) {
+        long timeNanos = entry.timeNanos();
+        if (timeNanos % LogEntry.NANOS_PER_SECOND != 0 || timeNanos < 0 || timeNanos / LogEntry.NANOS_PER_SECOND > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Only whole seconds after the start of the log can be stored, got %s", entry.timestamp()));
+        }
+        return (int) (timeNanos / LogEntry.NANOS_PER_SECOND);
+    }
+
+    private int descriptionId(String jobDescription) {
+        Integer id = descriptionToId.get(jobDescription);
+        if (id == null) {
+            id = descriptions.size();
+            descriptions.add(jobDescription);
+            descriptionToId.put(jobDescription, id);
+        }
+        return id;
+    }
+
+    private void grow() {
+        int capacity = Math.max(INITIAL_CAPACITY, pids.length + (pids.length >> 1));
+        seconds = Arrays.copyOf(seconds, capacity);
+        pids = Arrays.copyOf(pids, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        descriptionIds = Arrays.copyOf(descriptionIds, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Seconds since the midnight starting the log's first day
+     */
+    public int second(int index) {
+        return seconds[checkIndex(index)];
+    }
+
+    public int pid(int index) {
+        return pids[checkIndex(index)];
+    }
+
+    public JobEntryStatus status(int index) {
+        return STATUSES[statuses[checkIndex(index)]];
+    }
+
+    public boolean isStart(int index) {
+        return status(index) == JobEntryStatus.START;
+    }
+
+    /**
+     * @return Id of the entry's job description; equal descriptions have equal ids
+     */
+    public int descriptionId(int index) {
+        return descriptionIds[checkIndex(index)];
+    }
+
+    public String description(int descriptionId) {
+        return descriptions.get(descriptionId);
+    }
+
+    /**
+     * @return A new LogEntry holding the values of the entry at the index
+     */
+    public LogEntry entry(int index) {
+        checkIndex(index);
+        return new LogEntry(seconds[index] * LogEntry.NANOS_PER_SECOND, descriptions.get(descriptionIds[index]),
+                STATUSES[statuses[index]], pids[index]);
+    }
+
+    /**
+     * @return A read-only list view creating each LogEntry when it is accessed
+     */
+    public List<LogEntry> asList() {
+        return new AbstractList<>() {
+            @Override
+            public LogEntry get(int index) {
+                return entry(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+}
@@ -0,0 +1,88 @@
+package org.project.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * The slowest completed jobs overall and for each job description, selected as results arrive, and the number of
+ * results of each kind. Each selection is a min-heap of at most N jobs whose root, the fastest kept job, is replaced
+ * by a slower one, so memory grows with N and the number of job descriptions instead of the number of jobs.
+ * Of jobs with the same duration, the ones seen first are kept. Not thread safe.
+ */
+public final class SlowestJobs implements Consumer<JobAnalysis> {
+    private static final Comparator<JobAnalysis> BY_DURATION = Comparator.comparingLong(analysis -> analysis.jobExecution().durationNanos());
+
+    private final int limit;
+    private final PriorityQueue<JobAnalysis> slowest;
+    private final Map<String, PriorityQueue<JobAnalysis>> slowestByType = new TreeMap<>();
+    private final JobCounts counts = new JobCounts();
+
+    /**
+     * @param limit Number of jobs kept overall and for each job description
+     */
+    public SlowestJobs(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        this.limit = limit;
+        this.slowest = new PriorityQueue<>(limit, BY_DURATION);
+    }
+
+    @Override
+    public void accept(JobAnalysis analysis) {
+        counts.accept(analysis);
+        if (!analysis.hasJobExecution()) {
+            return;
+        }
+        offer(slowest, analysis);
+        offer(slowestByType.computeIfAbsent(analysis.jobExecution().jobDescription(), jobDescription -> new PriorityQueue<>(BY_DURATION)), analysis);
+    }
+
+    private void offer(PriorityQueue<JobAnalysis> heap, JobAnalysis analysis) {
+        if (heap.size() < limit) {
+            heap.add(analysis);
+        } else if (analysis.jobExecution().durationNanos() > heap.peek().jobExecution().durationNanos()) {
+            heap.poll();
+            heap.add(analysis);
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * @return The slowest jobs, slowest first
+     */
+    public List<JobAnalysis> slowest() {
+        return slowestFirst(slowest);
+    }
+
+    /**
+     * @return The slowest jobs of each job description, slowest first, sorted by description
+     */
+    public Map<String, List<JobAnalysis>> slowestByType() {
+        Map<String, List<JobAnalysis>> byType = new TreeMap<>();
+        slowestByType.forEach((jobDescription, heap) -> byType.put(jobDescription, slowestFirst(heap)));
+        return byType;
+    }
+
+    private static List<JobAnalysis> slowestFirst(PriorityQueue<JobAnalysis> heap) {
+        List<JobAnalysis> jobs = new ArrayList<>(heap);
+        jobs.sort(Collections.reverseOrder(BY_DURATION));
+        return jobs;
+    }
+
+    /**
+     * @return Counts of all results taken, not only of the slowest jobs
+     */
+    public JobCounts counts() {
+        return counts;
+    }
+}
@@ -0,0 +1,71 @@
+package org.project.monitor;
+
+import org.project.model.DurationHistogram;
+import org.project.model.JobAnalysis;
+import org.project.model.JobExecution;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Categorizes jobs against the normal runtime of their own job type: every job description has a
+ * {@link DurationHistogram} of the durations of its jobs that ended before, and a job longer than the warning or
+ * fault percentile of that baseline is reported as WARNING or FAULTY. Baselines are kept for the monitor's lifetime,
+ * each in bounded memory. Thread safe.
+ */
+final class AdaptiveThresholds {
+    private final double warningPercentile;
+    private final double faultPercentile;
+    private final int minSamples;
+    private final ConcurrentHashMap<String, DurationHistogram> baselines = new ConcurrentHashMap<>();
+
+    /**
+     * @param minSamples Number of durations a baseline needs before jobs are categorized against it
+     */
+    AdaptiveThresholds(double warningPercentile, double faultPercentile, int minSamples) {
+        if (warningPercentile <= 0 || warningPercentile > faultPercentile || faultPercentile >= 100) {
+            throw new IllegalArgumentException(String.format("Percentiles must satisfy 0 < warning <= fault < 100, got %s and %s",
+                    warningPercentile, faultPercentile));
+        }
+        if (minSamples <= 0) {
+            throw new IllegalArgumentException("minSamples must be positive");
+        }
+        this.warningPercentile = warningPercentile;
+        this.faultPercentile = faultPercentile;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Categorizes the job against its baseline, then adds its duration to the baseline.
+     *
+     * @return The analysis, or null if the baseline has fewer than minSamples durations yet
+     */
+    JobAnalysis categorize(JobExecution job) {
+        DurationHistogram baseline = baselines.computeIfAbsent(job.jobDescription(), description -> new DurationHistogram());
+        synchronized (baseline) {
+            try {
+                if (baseline.count() < minSamples) {
+                    return null;
+                }
+                if (job.durationNanos() > baseline.percentileNanos(faultPercentile)) {
+                    return JobAnalysis.faulty(job, reason(baseline, faultPercentile, job));
+                }
+                if (job.durationNanos() > baseline.percentileNanos(warningPercentile)) {
+                    return JobAnalysis.warning(job, reason(baseline, warningPercentile, job));
+                }
+                return JobAnalysis.completed(job);
+            } finally {
+                baseline.recordNanos(job.durationNanos());
+            }
+        }
+    }
+
+    private static String reason(DurationHistogram baseline, double percentile, JobExecution job) {
+        return String.format("Exceeded p%s (%s) of %d earlier runs with duration %s",
+                formatPercentile(percentile), JobExecution.formatDuration(baseline.percentile(percentile)),
+                baseline.count(), job.getFormattedDuration());
+    }
+
+    static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
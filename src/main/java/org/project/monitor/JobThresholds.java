@@ -0,0 +1,25 @@
+package org.project.monitor;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Durations above which a job is reported as WARNING or FAULTY.
+ */
+record JobThresholds(Duration warning, Duration fault) {
+    JobThresholds {
+        Objects.requireNonNull(warning, "warning cannot be null");
+        Objects.requireNonNull(fault, "fault cannot be null");
+        if (warning.isNegative() || fault.isNegative()) {
+            throw new IllegalArgumentException("thresholds cannot be negative");
+        }
+    }
+
+    long warningNanos() {
+        return warning.toNanos();
+    }
+
+    long faultNanos() {
+        return fault.toNanos();
+    }
+}
@@ -1,13 +1,21 @@
 package org.project.monitor;
 
 import org.project.model.JobAnalysis;
-import org.project.model.JobEntryStatus;
 import org.project.model.JobExecution;
 import org.project.model.LogEntry;
+import org.project.model.LogEntryStore;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.project.monitor.LogMonitorEngine.duplicateStart;
+import static org.project.monitor.LogMonitorEngine.endWithoutStart;
+import static org.project.monitor.LogMonitorEngine.startWithoutEnd;
 
 /**
  * Processes log entries to track job executions and generate reports.
@@ -17,18 +25,56 @@ import java.util.stream.Collectors;
  * Thresholds can be configured via system properties:
  * - log.monitor.warning.threshold.minutes (default: 5)
  * - log.monitor.fault.threshold.minutes (default: 10)
+ * - log.monitor.rules.file (default: none), thresholds per job family, see {@link ThresholdRules}
+ * - log.monitor.open.jobs.offheap (default: false), keeps the jobs not ended yet outside the heap
+ * - log.monitor.parallelism (default: 1), number of threads matching the entries of a batch, see {@link PidShardedMatcher}
+ * - log.monitor.categorization (default: fixed), adaptive to compare jobs against their own job type, see {@link AdaptiveThresholds}
+ * - log.monitor.adaptive.warning.percentile (default: 95), log.monitor.adaptive.fault.percentile (default: 99)
+ * - log.monitor.adaptive.min.samples (default: 20), jobs of a type are categorized with the fixed thresholds until then
  */
 public class LogMonitor {
+    static final int MIN_SHARDED_ENTRIES = 1 << 16;
+
     private final Duration warningThreshold;
     private final Duration faultThreshold;
+    private final boolean offHeapOpenJobs;
+    private final int parallelism;
+    private final AdaptiveThresholds adaptiveThresholds;
+    private final JobThresholds defaultThresholds;
+    private final ThresholdRules thresholdRules;
 
     public LogMonitor() {
         warningThreshold = Duration.ofMinutes(Optional.ofNullable(System.getProperty("log.monitor.warning.threshold.minutes")).map(Long::parseLong).orElse(5L));
         faultThreshold = Duration.ofMinutes(Optional.ofNullable(System.getProperty("log.monitor.fault.threshold.minutes")).map(Long::parseLong).orElse(10L));
+        defaultThresholds = new JobThresholds(warningThreshold, faultThreshold);
+        thresholdRules = Optional.ofNullable(System.getProperty("log.monitor.rules.file")).map(Path::of).map(this::loadRules).orElse(null);
+        offHeapOpenJobs = Boolean.parseBoolean(System.getProperty("log.monitor.open.jobs.offheap"));
+        parallelism = Optional.ofNullable(System.getProperty("log.monitor.parallelism")).map(Integer::parseInt).orElse(1);
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("log.monitor.parallelism must be positive");
+        }
+        String categorization = System.getProperty("log.monitor.categorization", "fixed");
+        adaptiveThresholds = switch (categorization) {
+            case "fixed" -> null;
+            case "adaptive" -> new AdaptiveThresholds(
+                    Optional.ofNullable(System.getProperty("log.monitor.adaptive.warning.percentile")).map(Double::parseDouble).orElse(95.0),
+                    Optional.ofNullable(System.getProperty("log.monitor.adaptive.fault.percentile")).map(Double::parseDouble).orElse(99.0),
+                    Optional.ofNullable(System.getProperty("log.monitor.adaptive.min.samples")).map(Integer::parseInt).orElse(20));
+            default -> throw new IllegalArgumentException(String.format("Unknown log.monitor.categorization: %s", categorization));
+        };
+    }
+
+    private ThresholdRules loadRules(Path rulesFile) {
+        try {
+            return ThresholdRules.load(rulesFile, defaultThresholds);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to read threshold rules from %s", rulesFile), e);
+        }
     }
 
     /**
-     * Processes a list of log entries and generates an analysis result for each job
+     * Processes a list of log entries and generates an analysis result for each job.
+     * With a parallelism above 1, large lists are matched on that many threads, with the same results in the same order.
      *
      * @param logEntries List of log entries to process
      * @return A list of JobAnalysis entries containing all analyzed jobs and dangling entries
@@ -37,90 +83,194 @@ public class LogMonitor {
         if (logEntries == null || logEntries.isEmpty()) {
             return List.of();
         }
+        if (isSharded(logEntries.size())) {
+            return new PidShardedMatcher(this, parallelism).matchStartsFirst(logEntries);
+        }
+
+        List<JobAnalysis> analyzedJobs = new ArrayList<>();
+        LogMonitorEngine engine = newEngine(analyzedJobs::add);
+        // all START events are paired before the END events are matched against them
+        for (LogEntry entry : logEntries) {
+            if (entry.isStart()) {
+                engine.accept(entry);
+            }
+        }
+        for (LogEntry entry : logEntries) {
+            if (!entry.isStart()) {
+                engine.accept(entry);
+            }
+        }
+        engine.flush();
+        return analyzedJobs;
+    }
 
-        Map<JobEntryStatus, List<LogEntry>> statusToEntries = logEntries.stream().collect(Collectors.groupingBy(LogEntry::status));
+    /**
+     * @param sink Receives the analyzed jobs and dangling entries as soon as they are known
+     * @return An engine analyzing entries one at a time with this monitor's thresholds
+     */
+    public LogMonitorEngine newEngine(Consumer<? super JobAnalysis> sink) {
+        return new LogMonitorEngine(this, Objects.requireNonNull(sink), newOpenJobs());
+    }
+
+    /**
+     * @param sink        Receives the analyzed jobs and dangling entries as soon as they are known
+     * @param overdueSink Receives the open jobs when they run past the warning and the fault threshold,
+     *                    as {@link JobAnalysis#overdue} results
+     * @return An engine analyzing entries one at a time with this monitor's thresholds, and watching the open jobs
+     */
+    public LogMonitorEngine newEngine(Consumer<? super JobAnalysis> sink, Consumer<? super JobAnalysis> overdueSink) {
+        return new LogMonitorEngine(this, Objects.requireNonNull(sink), newOpenJobs(), Objects.requireNonNull(overdueSink));
+    }
+
+    private OpenJobs newOpenJobs() {
+        return offHeapOpenJobs ? new OffHeapOpenJobs() : OpenJobs.onHeap();
+    }
+
+    /**
+     * Same as {@link #process(List)} for entries held in columnar form, always on the calling thread. Entries are
+     * matched on the pid and status columns, only the row indices of open jobs are kept while matching, and LogEntry
+     * views are created just for the entries that end up in a result.
+     *
+     * @param store Log entries to process
+     * @return A list of JobAnalysis entries containing all analyzed jobs and dangling entries
+     */
+    public List<JobAnalysis> process(LogEntryStore store) {
         List<JobAnalysis> analyzedJobs = new ArrayList<>();
 
-        Map<Integer, LogEntry> pidToStartEntry = new HashMap<>();
-        for (LogEntry entry : statusToEntries.getOrDefault(JobEntryStatus.START, List.of())) {
-            LogEntry duplicateStart = pidToStartEntry.get(entry.pid());
-            if (duplicateStart != null) {
-                String issue = String.format(
-                        "Duplicate START event for PID %d (%s) at %s. Previous START was at %s.",
-                        entry.pid(),
-                        entry.jobDescription(),
-                        entry.timestamp(),
-                        duplicateStart.timestamp());
-                analyzedJobs.add(JobAnalysis.dangling(entry, issue));
+        PidIndexTable pidToStartIndex = new PidIndexTable();
+        for (int i = 0; i < store.size(); i++) {
+            if (store.isStart(i)) {
+                int duplicateStart = pidToStartIndex.put(store.pid(i), i);
+                if (duplicateStart != PidIndexTable.NONE) {
+                    analyzedJobs.add(duplicateStart(store.entry(i), store.entry(duplicateStart)));
+                }
             }
-            pidToStartEntry.put(entry.pid(), entry);
         }
 
-        for (LogEntry entry : statusToEntries.getOrDefault(JobEntryStatus.END, List.of())) {
-            LogEntry startEvent = pidToStartEntry.get(entry.pid());
-            if (startEvent == null) {
-                String issue = String.format(
-                        "END event without matching START for PID %d (%s) at %s",
-                        entry.pid(),
-                        entry.jobDescription(),
-                        entry.timestamp());
-                analyzedJobs.add(JobAnalysis.dangling(entry, issue));
-            } else {
-                analyzedJobs.add(categorizeJob(new JobExecution(startEvent, entry)));
-                pidToStartEntry.remove(entry.pid());
+        for (int i = 0; i < store.size(); i++) {
+            if (!store.isStart(i)) {
+                int startIndex = pidToStartIndex.remove(store.pid(i));
+                if (startIndex == PidIndexTable.NONE) {
+                    analyzedJobs.add(endWithoutStart(store.entry(i)));
+                } else {
+                    analyzedJobs.add(categorizeJob(new JobExecution(store.entry(startIndex), store.entry(i))));
+                }
             }
         }
 
-        /*
-         * Check for unmatched START events (jobs that never finished)
-         * These could also be events that did not complete yet
-         */
-        for (LogEntry unmatchedEntry : pidToStartEntry.values()) {
-            String issue = String.format(
-                    "START event without matching END for PID %d (%s) at %s",
-                    unmatchedEntry.pid(),
-                    unmatchedEntry.jobDescription(),
-                    unmatchedEntry.timestamp());
-            analyzedJobs.add(JobAnalysis.dangling(unmatchedEntry, issue));
+        pidToStartIndex.drainInIndexOrder(unmatchedIndex -> analyzedJobs.add(startWithoutEnd(store.entry(unmatchedIndex))));
+        return analyzedJobs;
+    }
+
+    /**
+     * Processes log entries in a single pass as they are produced, e.g. by {@link org.project.parser.CsvLogParser#stream}.
+     * Only the jobs that are still open are kept in memory besides the results.
+     * Unlike {@link #process(List)}, which pairs all START events before looking at END events,
+     * an END is matched against the START events seen before it in the stream.
+     * With a parallelism above 1, the entries are collected first and matched on that many threads,
+     * with the same results in the same order.
+     *
+     * @param logEntries Log entries to process, in the order they were logged
+     * @return A list of JobAnalysis entries containing all analyzed jobs and dangling entries
+     */
+    public List<JobAnalysis> process(Stream<LogEntry> logEntries) {
+        if (parallelism > 1) {
+            List<LogEntry> entries = logEntries.toList();
+            if (isSharded(entries.size())) {
+                return new PidShardedMatcher(this, parallelism).matchInOrder(entries);
+            }
+            logEntries = entries.stream();
         }
+        List<JobAnalysis> analyzedJobs = new ArrayList<>();
+        process(logEntries, analyzedJobs::add);
         return analyzedJobs;
     }
 
     /**
-     * Categorizes a job execution based on its duration.
+     * @return Whether that many entries are worth matching on several threads. Adaptive categorization depends on
+     * the order jobs end in across all pids, so it always runs on one thread.
+     */
+    private boolean isSharded(int entries) {
+        return parallelism > 1 && entries >= MIN_SHARDED_ENTRIES && adaptiveThresholds == null;
+    }
+
+    /**
+     * Same as {@link #process(Stream)}, but hands each result to the sink as soon as it is known:
+     * a job when its END arrives, a dangling START once the stream has ended.
+     *
+     * @param logEntries Log entries to process, in the order they were logged
+     * @param sink       Receives the analyzed jobs and dangling entries
+     */
+    public void process(Stream<LogEntry> logEntries, Consumer<? super JobAnalysis> sink) {
+        LogMonitorEngine engine = newEngine(sink);
+        logEntries.forEachOrdered(engine::accept);
+        engine.flush();
+    }
+
+    /**
+     * Same as {@link #process(Stream, Consumer)}, and reports the open jobs to the overdue sink
+     * as soon as they run past the warning and the fault threshold, see {@link LogMonitorEngine}.
+     *
+     * @param logEntries  Log entries to process, in the order they were logged
+     * @param sink        Receives the analyzed jobs and dangling entries
+     * @param overdueSink Receives the jobs still running past a threshold
+     */
+    public void process(Stream<LogEntry> logEntries, Consumer<? super JobAnalysis> sink, Consumer<? super JobAnalysis> overdueSink) {
+        LogMonitorEngine engine = newEngine(sink, overdueSink);
+        logEntries.forEachOrdered(engine::accept);
+        engine.flush();
+    }
+
+    /**
+     * Categorizes a job execution based on its duration: against the baseline of its job type in adaptive mode,
+     * otherwise or while the baseline is too small against the thresholds of its job type.
      *
      * @param job The job execution to categorize
      * @return A JobAnalysis with the appropriate state and reason
      */
-    private JobAnalysis categorizeJob(JobExecution job) {
-        if (isFaulty(job)) {
+    JobAnalysis categorizeJob(JobExecution job) {
+        if (adaptiveThresholds != null) {
+            JobAnalysis adaptive = adaptiveThresholds.categorize(job);
+            if (adaptive != null) {
+                return adaptive;
+            }
+        }
+        JobThresholds thresholds = thresholdsFor(job.jobDescription());
+        if (isFaulty(job, thresholds)) {
             String reason = String.format("Exceeded fault threshold (%d min) with duration %s",
-                    faultThreshold.toMinutes(), job.getFormattedDuration());
+                    thresholds.fault().toMinutes(), job.getFormattedDuration());
             return JobAnalysis.faulty(job, reason);
         }
-        if (isWarning(job)) {
+        if (isWarning(job, thresholds)) {
             String reason = String.format("Exceeded warning threshold (%d min) with duration %s",
-                    warningThreshold.toMinutes(), job.getFormattedDuration());
+                    thresholds.warning().toMinutes(), job.getFormattedDuration());
             return JobAnalysis.warning(job, reason);
         }
         return JobAnalysis.completed(job);
     }
 
+    /**
+     * @return Thresholds of the first rule matching the job description, or the global thresholds
+     */
+    JobThresholds thresholdsFor(String jobDescription) {
+        return thresholdRules == null ? defaultThresholds : thresholdRules.thresholdsFor(jobDescription);
+    }
+
     /**
      * @param job The job execution to check
      * @return true if duration exceeds warning threshold but not fault threshold
      */
-    private boolean isWarning(JobExecution job) {
-        return job.duration().compareTo(warningThreshold) > 0
-                && job.duration().compareTo(faultThreshold) <= 0;
+    private static boolean isWarning(JobExecution job, JobThresholds thresholds) {
+        return job.durationNanos() > thresholds.warningNanos()
+                && job.durationNanos() <= thresholds.faultNanos();
     }
 
     /**
      * @param job The job execution to check
      * @return true if duration exceeds fault threshold
      */
-    private boolean isFaulty(JobExecution job) {
-        return job.duration().compareTo(faultThreshold) > 0;
+    private static boolean isFaulty(JobExecution job, JobThresholds thresholds) {
+        return job.durationNanos() > thresholds.faultNanos();
     }
 
     public Duration getWarningThreshold() {
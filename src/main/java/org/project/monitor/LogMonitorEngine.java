@@ -0,0 +1,206 @@
+package org.project.monitor;
+
+import org.project.model.DayRollover;
+import org.project.model.JobAnalysis;
+import org.project.model.JobAnalysisState;
+import org.project.model.JobExecution;
+import org.project.model.LogEntry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Incremental form of {@link LogMonitor}: takes entries one at a time and hands each result to a sink
+ * as soon as it is known. A job is reported when its END arrives, a duplicate START or an END without START
+ * right away, and the jobs still open when {@link #flush()} is called. Only the open jobs are kept in memory.
+ * <p>
+ * With an overdue sink, open jobs are also reported while they still run: once when they pass the warning threshold
+ * and once when they pass the fault threshold. Time is taken from the entries, so a threshold is noticed when the
+ * first entry logged after it arrives. The days of the entries are told by a {@link DayRollover}, and entries logged
+ * out of order do not move time back.
+ * The deadlines wait in a {@link TimingWheel} with one second ticks. Not thread safe.
+ */
+public final class LogMonitorEngine {
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LogMonitor monitor;
+    private final Consumer<? super JobAnalysis> sink;
+    private final OpenJobs openJobs;
+    private final Consumer<? super JobAnalysis> overdueSink;
+    private final TimingWheel<OverdueJob> overdueTimers = new TimingWheel<>(0);
+    private final PidTable<TimingWheel.Timer<OverdueJob>> pidToOverdueTimer = new PidTable<>();
+    private final DayRollover dayRollover = new DayRollover();
+    private long nowNanos = Long.MIN_VALUE;
+
+    LogMonitorEngine(LogMonitor monitor, Consumer<? super JobAnalysis> sink, OpenJobs openJobs) {
+        this(monitor, sink, openJobs, null);
+    }
+
+    LogMonitorEngine(LogMonitor monitor, Consumer<? super JobAnalysis> sink, OpenJobs openJobs, Consumer<? super JobAnalysis> overdueSink) {
+        this.monitor = monitor;
+        this.sink = sink;
+        this.openJobs = openJobs;
+        this.overdueSink = overdueSink;
+    }
+
+    /**
+     * Matches an END against the START seen before it for the same PID.
+     */
+    public void accept(LogEntry entry) {
+        long entryNanos = 0;
+        if (overdueSink != null) {
+            entryNanos = advance(entry);
+        }
+        if (entry.isStart()) {
+            LogEntry duplicateStart = openJobs.put(entry);
+            if (duplicateStart != null) {
+                sink.accept(duplicateStart(entry, duplicateStart));
+            }
+            if (overdueSink != null) {
+                watch(entry, entryNanos);
+            }
+        } else {
+            LogEntry startEvent = openJobs.remove(entry.pid());
+            if (startEvent == null) {
+                sink.accept(endWithoutStart(entry));
+            } else {
+                sink.accept(monitor.categorizeJob(new JobExecution(startEvent, entry)));
+            }
+        }
+    }
+
+    /**
+     * Stops watching the job ending with the entry, then moves time to the entry's timestamp and reports the jobs
+     * that passed a threshold by then.
+     *
+     * @return Time of the entry in nanos since the midnight starting the first entry's day
+     */
+    private long advance(LogEntry entry) {
+        if (!entry.isStart()) {
+            TimingWheel.Timer<OverdueJob> timer = pidToOverdueTimer.remove(entry.pid());
+            if (timer != null) {
+                overdueTimers.cancel(timer);
+            }
+        }
+        long entryNanos = dayRollover.resolve(entry.timeNanos());
+        nowNanos = Math.max(nowNanos, entryNanos);
+        overdueTimers.advanceTo(Math.floorDiv(nowNanos, TICK_NANOS), this::reportOverdue);
+        return entryNanos;
+    }
+
+    private void watch(LogEntry start, long startNanos) {
+        OverdueJob job = new OverdueJob(start, startNanos, monitor.thresholdsFor(start.jobDescription()));
+        TimingWheel.Timer<OverdueJob> previous = pidToOverdueTimer.remove(start.pid());
+        if (previous != null) {
+            overdueTimers.cancel(previous);
+        }
+        // a START logged out of order may be past the threshold already, it is reported on the next tick
+        long warningTick = Math.max(deadlineTick(startNanos, job.thresholds.warningNanos()), overdueTimers.currentTick() + 1);
+        pidToOverdueTimer.put(start.pid(), overdueTimers.schedule(warningTick, job));
+    }
+
+    /**
+     * @return First tick at which a job started at the time has been running longer than the threshold
+     */
+    private static long deadlineTick(long startNanos, long thresholdNanos) {
+        return Math.floorDiv(startNanos + thresholdNanos, TICK_NANOS) + 1;
+    }
+
+    private void reportOverdue(TimingWheel.Timer<OverdueJob> timer) {
+        OverdueJob job = timer.value();
+        if (!job.warned) {
+            job.warned = true;
+            overdueSink.accept(stillRunning(job.start, JobAnalysisState.WARNING, "warning", job.thresholds.warning()));
+            long faultTick = deadlineTick(job.startNanos, job.thresholds.faultNanos());
+            if (faultTick > overdueTimers.currentTick()) {
+                overdueTimers.reschedule(timer, faultTick);
+                return;
+            }
+        }
+        pidToOverdueTimer.remove(job.start.pid());
+        overdueSink.accept(stillRunning(job.start, JobAnalysisState.FAULTY, "fault", job.thresholds.fault()));
+    }
+
+    /**
+     * Reports the jobs that are still open as dangling START events, in the order they started, and forgets them.
+     */
+    public void flush() {
+        /*
+         * Check for unmatched START events (jobs that never finished)
+         * These could also be events that did not complete yet
+         */
+        openJobs.drainInStartOrder(unmatchedEntry -> sink.accept(startWithoutEnd(unmatchedEntry)));
+        pidToOverdueTimer.drainInPutOrder(overdueTimers::cancel);
+    }
+
+    /**
+     * Hands the STARTs of the jobs that are still open to the action, in the order they started, keeping them open.
+     * Handing them to {@link #accept(LogEntry)} of a new engine, e.g. after a restart, opens the same jobs again.
+     */
+    public void forEachOpenJob(Consumer<? super LogEntry> action) {
+        openJobs.forEachInStartOrder(action);
+    }
+
+    /**
+     * @return Number of jobs started but not ended yet
+     */
+    public int openJobs() {
+        return openJobs.size();
+    }
+
+    static JobAnalysis duplicateStart(LogEntry entry, LogEntry previousStart) {
+        String issue = String.format(
+                "Duplicate START event for PID %d (%s) at %s. Previous START was at %s.",
+                entry.pid(),
+                entry.jobDescription(),
+                entry.timestamp(),
+                previousStart.timestamp());
+        return JobAnalysis.dangling(entry, issue);
+    }
+
+    static JobAnalysis endWithoutStart(LogEntry entry) {
+        String issue = String.format(
+                "END event without matching START for PID %d (%s) at %s",
+                entry.pid(),
+                entry.jobDescription(),
+                entry.timestamp());
+        return JobAnalysis.dangling(entry, issue);
+    }
+
+    static JobAnalysis startWithoutEnd(LogEntry entry) {
+        String issue = String.format(
+                "START event without matching END for PID %d (%s) at %s",
+                entry.pid(),
+                entry.jobDescription(),
+                entry.timestamp());
+        return JobAnalysis.dangling(entry, issue);
+    }
+
+    private static JobAnalysis stillRunning(LogEntry start, JobAnalysisState state, String threshold, Duration duration) {
+        String issue = String.format(
+                "Still running past %s threshold (%d min) for PID %d (%s), started at %s",
+                threshold,
+                duration.toMinutes(),
+                start.pid(),
+                start.jobDescription(),
+                start.timestamp());
+        return JobAnalysis.overdue(start, state, issue);
+    }
+
+    /**
+     * An open job waiting for its next threshold.
+     */
+    private static final class OverdueJob {
+        private final LogEntry start;
+        private final long startNanos;
+        private final JobThresholds thresholds;
+        private boolean warned;
+
+        private OverdueJob(LogEntry start, long startNanos, JobThresholds thresholds) {
+            this.start = start;
+            this.startNanos = startNanos;
+            this.thresholds = thresholds;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.project.monitor;
+
+import org.project.model.JobEntryStatus;
+import org.project.model.LogEntry;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Open jobs kept outside the heap in a direct buffer, for hosts tracking millions of concurrently open jobs.
+ * Each open job takes one 24 byte slot (pid, description id, time, put order) in an open-addressing table
+ * laid out like {@link PidTable}; only the distinct job descriptions stay on the heap.
+ * START entries are rebuilt when they are removed. Not thread safe.
+ */
+final class OffHeapOpenJobs implements OpenJobs {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int SLOT_SIZE = 24;
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final int PID = 0;
+    // description id plus one, 0 marks a free slot
+    private static final int DESCRIPTION = 4;
+    private static final int TIME = 8;
+    private static final int PUT_ORDER = 16;
+
+    private final List<String> descriptions = new ArrayList<>();
+    private final Map<String, Integer> descriptionIds = new HashMap<>();
+    private ByteBuffer slots;
+    private int capacity;
+    private int mask;
+    private int size;
+    private long nextPutOrder;
+
+    OffHeapOpenJobs() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int newCapacity) {
+        slots = ByteBuffer.allocateDirect(newCapacity * SLOT_SIZE);
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+    }
+
+    @Override
+    public LogEntry put(LogEntry start) {
+        if ((size + 1) * 2 > capacity) {
+            grow();
+        }
+        int descriptionId = descriptionId(start.jobDescription());
+        int index = PidTable.slot(start.pid(), mask);
+        while (isOccupied(index)) {
+            if (pid(index) == start.pid()) {
+                LogEntry previous = entry(index);
+                write(index, start.pid(), descriptionId, start.timeNanos(), nextPutOrder++);
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        write(index, start.pid(), descriptionId, start.timeNanos(), nextPutOrder++);
+        size++;
+        return null;
+    }
+
+    @Override
+    public LogEntry remove(int pid) {
+        int index = PidTable.slot(pid, mask);
+        while (isOccupied(index)) {
+            if (pid(index) == pid) {
+                LogEntry removed = entry(index);
+                deleteAt(index);
+                size--;
+                return removed;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    private void deleteAt(int free) {
+        int index = (free + 1) & mask;
+        while (isOccupied(index)) {
+            int home = PidTable.slot(pid(index), mask);
+            if (((index - home) & mask) >= ((index - free) & mask)) {
+                slots.put(free * SLOT_SIZE, slots, index * SLOT_SIZE, SLOT_SIZE);
+                free = index;
+            }
+            index = (index + 1) & mask;
+        }
+        slots.putInt(free * SLOT_SIZE + DESCRIPTION, 0);
+    }
+
+    private void grow() {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException(String.format("Cannot keep more than %d open jobs off-heap", MAX_CAPACITY / 2));
+        }
+        ByteBuffer oldSlots = slots;
+        int oldCapacity = capacity;
+        allocate(oldCapacity * 2);
+        for (int i = 0; i < oldCapacity; i++) {
+            if (oldSlots.getInt(i * SLOT_SIZE + DESCRIPTION) != 0) {
+                int index = PidTable.slot(oldSlots.getInt(i * SLOT_SIZE + PID), mask);
+                while (isOccupied(index)) {
+                    index = (index + 1) & mask;
+                }
+                slots.put(index * SLOT_SIZE, oldSlots, i * SLOT_SIZE, SLOT_SIZE);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEachInStartOrder(Consumer<? super LogEntry> action) {
+        Integer[] occupied = new Integer[size];
+        int count = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (isOccupied(i)) {
+                occupied[count++] = i;
+            }
+        }
+        Arrays.sort(occupied, Comparator.comparingLong(index -> slots.getLong(index * SLOT_SIZE + PUT_ORDER)));
+        for (int index : occupied) {
+            action.accept(entry(index));
+        }
+    }
+
+    @Override
+    public void drainInStartOrder(Consumer<? super LogEntry> action) {
+        forEachInStartOrder(action);
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    private int descriptionId(String description) {
+        Integer id = descriptionIds.get(description);
+        if (id == null) {
+            id = descriptions.size();
+            descriptions.add(description);
+            descriptionIds.put(description, id);
+        }
+        return id;
+    }
+
+    private boolean isOccupied(int index) {
+        return slots.getInt(index * SLOT_SIZE + DESCRIPTION) != 0;
+    }
+
+    private int pid(int index) {
+        return slots.getInt(index * SLOT_SIZE + PID);
+    }
+
+    private LogEntry entry(int index) {
+        int offset = index * SLOT_SIZE;
+        return new LogEntry(slots.getLong(offset + TIME),
+                descriptions.get(slots.getInt(offset + DESCRIPTION) - 1), JobEntryStatus.START, slots.getInt(offset + PID));
+    }
+
+    private void write(int index, int pid, int descriptionId, long timeNanos, long putOrder) {
+        int offset = index * SLOT_SIZE;
+        slots.putInt(offset + PID, pid)
+                .putInt(offset + DESCRIPTION, descriptionId + 1)
+                .putLong(offset + TIME, timeNanos)
+                .putLong(offset + PUT_ORDER, putOrder);
+    }
+}
@@ -0,0 +1,66 @@
+package org.project.monitor;
+
+import org.project.model.LogEntry;
+
+import java.util.function.Consumer;
+
+/**
+ * START entries of the jobs that have not ended yet, keyed by pid.
+ */
+interface OpenJobs {
+
+    /**
+     * @return The START previously open for the same pid, or null
+     */
+    LogEntry put(LogEntry start);
+
+    /**
+     * @return The START open for the pid, or null if there is none
+     */
+    LogEntry remove(int pid);
+
+    int size();
+
+    /**
+     * Hands the open STARTs to the action in the order they were put in, keeping them open.
+     */
+    void forEachInStartOrder(Consumer<? super LogEntry> action);
+
+    /**
+     * Hands the open STARTs to the action in the order they were put in, then forgets them.
+     */
+    void drainInStartOrder(Consumer<? super LogEntry> action);
+
+    /**
+     * @return Open jobs held in a {@link PidTable} on the heap
+     */
+    static OpenJobs onHeap() {
+        PidTable<LogEntry> table = new PidTable<>();
+        return new OpenJobs() {
+            @Override
+            public LogEntry put(LogEntry start) {
+                return table.put(start.pid(), start);
+            }
+
+            @Override
+            public LogEntry remove(int pid) {
+                return table.remove(pid);
+            }
+
+            @Override
+            public int size() {
+                return table.size();
+            }
+
+            @Override
+            public void forEachInStartOrder(Consumer<? super LogEntry> action) {
+                table.forEachInPutOrder(action);
+            }
+
+            @Override
+            public void drainInStartOrder(Consumer<? super LogEntry> action) {
+                table.drainInPutOrder(action);
+            }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package org.project.monitor;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Open-addressing hash table from primitive pids to input indices, probed like {@link PidTable} but without a value
+ * array: each slot packs the index plus one in the upper and the pid in the lower half, so puts, lookups and removes
+ * touch a single long and nothing is boxed. The indices also order the slots for {@link #drainInIndexOrder(IntConsumer)}.
+ * Not thread safe.
+ */
+final class PidIndexTable {
+    static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    // index plus one in the upper half, pid in the lower half, 0 for a free slot
+    private long[] slots = new long[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+
+    /**
+     * @param index Input index, not negative
+     * @return The index previously put for the pid, or {@link #NONE}
+     */
+    int put(int pid, int index) {
+        if (index < 0 || index == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("index must be between 0 and Integer.MAX_VALUE - 1");
+        }
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+        }
+        long slot = (long) (index + 1) << 32 | (pid & 0xFFFF_FFFFL);
+        int position = PidTable.slot(pid, mask);
+        for (long current = slots[position]; current != 0; current = slots[position]) {
+            if ((int) current == pid) {
+                slots[position] = slot;
+                return index(current);
+            }
+            position = (position + 1) & mask;
+        }
+        slots[position] = slot;
+        size++;
+        return NONE;
+    }
+
+    /**
+     * @return The index removed for the pid, or {@link #NONE} if there was none
+     */
+    int remove(int pid) {
+        int position = PidTable.slot(pid, mask);
+        for (long current = slots[position]; current != 0; current = slots[position]) {
+            if ((int) current == pid) {
+                deleteAt(position);
+                size--;
+                return index(current);
+            }
+            position = (position + 1) & mask;
+        }
+        return NONE;
+    }
+
+    private static int index(long slot) {
+        return (int) (slot >>> 32) - 1;
+    }
+
+    /**
+     * Moves later entries of the probe sequence back into the freed slot, so lookups never stop early.
+     */
+    private void deleteAt(int free) {
+        int position = (free + 1) & mask;
+        for (long current = slots[position]; current != 0; current = slots[position]) {
+            int home = PidTable.slot((int) current, mask);
+            if (((position - home) & mask) >= ((position - free) & mask)) {
+                slots[free] = current;
+                free = position;
+            }
+            position = (position + 1) & mask;
+        }
+        slots[free] = 0;
+    }
+
+    private void grow() {
+        long[] oldSlots = slots;
+        slots = new long[oldSlots.length * 2];
+        mask = slots.length - 1;
+        for (long slot : oldSlots) {
+            if (slot != 0) {
+                int position = PidTable.slot((int) slot, mask);
+                while (slots[position] != 0) {
+                    position = (position + 1) & mask;
+                }
+                slots[position] = slot;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Hands all indices to the action in ascending order, then empties the table.
+     */
+    void drainInIndexOrder(IntConsumer action) {
+        long[] occupied = new long[size];
+        int count = 0;
+        for (long slot : slots) {
+            if (slot != 0) {
+                occupied[count++] = slot;
+            }
+        }
+        // the index sits in the upper half, so the slots sort by index
+        Arrays.sort(occupied, 0, count);
+        for (int i = 0; i < count; i++) {
+            action.accept(index(occupied[i]));
+        }
+        Arrays.fill(slots, 0);
+        size = 0;
+    }
+}
@@ -0,0 +1,204 @@
+package org.project.monitor;
+
+import org.project.model.JobAnalysis;
+import org.project.model.JobExecution;
+import org.project.model.LogEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.project.monitor.LogMonitorEngine.duplicateStart;
+import static org.project.monitor.LogMonitorEngine.endWithoutStart;
+import static org.project.monitor.LogMonitorEngine.startWithoutEnd;
+
+/**
+ * Matches entries on several threads: the entries are split into shards by a hash of their pid, and each shard is
+ * matched and categorized on its own thread with its own {@link PidIndexTable}, so nothing is shared while matching.
+ * All entries of a pid land in the same shard in their input order, so every pid sees the same START/END sequence
+ * as in a sequential run. Each result is tagged with the phase and input index it is produced at, and the shards'
+ * results, each list already in tag order, are merged by a single k-way merge into exactly the order {@link LogMonitor}
+ * produces them on one thread.
+ */
+final class PidShardedMatcher {
+    private static final int STARTS_PHASE = 0;
+    private static final int ENDS_PHASE = 1;
+    private static final int DANGLING_PHASE = 2;
+
+    private final LogMonitor monitor;
+    private final int shards;
+
+    PidShardedMatcher(LogMonitor monitor, int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards must be positive");
+        }
+        this.monitor = monitor;
+        this.shards = shards;
+    }
+
+    /**
+     * Pairs all START events before matching the END events, like {@link LogMonitor#process(List)}.
+     */
+    List<JobAnalysis> matchStartsFirst(List<LogEntry> entries) {
+        return match(entries, true);
+    }
+
+    /**
+     * Matches each END against the START events before it, like {@link LogMonitor#process(java.util.stream.Stream)}.
+     */
+    List<JobAnalysis> matchInOrder(List<LogEntry> entries) {
+        return match(entries, false);
+    }
+
+    private List<JobAnalysis> match(List<LogEntry> logEntries, boolean startsFirst) {
+        List<LogEntry> entries = logEntries instanceof RandomAccess ? logEntries : new ArrayList<>(logEntries);
+        int[][] shardIndices = partition(entries);
+        ForkJoinPool pool = new ForkJoinPool(shards);
+        try {
+            List<Future<ShardResults>> futures = new ArrayList<>(shards);
+            for (int[] indices : shardIndices) {
+                futures.add(pool.submit(() -> matchShard(entries, indices, startsFirst)));
+            }
+            List<ShardResults> results = new ArrayList<>(shards);
+            for (Future<ShardResults> future : futures) {
+                results.add(await(future));
+            }
+            return merge(results);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return For each shard, the indices of its entries in input order
+     */
+    private int[][] partition(List<LogEntry> entries) {
+        int[] shardOfEntry = new int[entries.size()];
+        int[] shardSizes = new int[shards];
+        for (int i = 0; i < shardOfEntry.length; i++) {
+            shardOfEntry[i] = shard(entries.get(i).pid());
+            shardSizes[shardOfEntry[i]]++;
+        }
+        int[][] shardIndices = new int[shards][];
+        for (int shard = 0; shard < shards; shard++) {
+            shardIndices[shard] = new int[shardSizes[shard]];
+        }
+        int[] filled = new int[shards];
+        for (int i = 0; i < shardOfEntry.length; i++) {
+            int shard = shardOfEntry[i];
+            shardIndices[shard][filled[shard]++] = i;
+        }
+        return shardIndices;
+    }
+
+    private int shard(int pid) {
+        long hash = (pid * 0x9E3779B9) & 0xFFFF_FFFFL;
+        return (int) (hash * shards >>> 32);
+    }
+
+    private ShardResults matchShard(List<LogEntry> entries, int[] indices, boolean startsFirst) {
+        ShardResults results = new ShardResults();
+        PidIndexTable pidToStartIndex = new PidIndexTable();
+        for (int index : indices) {
+            LogEntry entry = entries.get(index);
+            if (entry.isStart()) {
+                int duplicateStart = pidToStartIndex.put(entry.pid(), index);
+                if (duplicateStart != PidIndexTable.NONE) {
+                    results.add(STARTS_PHASE, index, duplicateStart(entry, entries.get(duplicateStart)));
+                }
+            } else if (!startsFirst) {
+                matchEnd(entries, index, pidToStartIndex, results, STARTS_PHASE);
+            }
+        }
+        if (startsFirst) {
+            for (int index : indices) {
+                if (!entries.get(index).isStart()) {
+                    matchEnd(entries, index, pidToStartIndex, results, ENDS_PHASE);
+                }
+            }
+        }
+        pidToStartIndex.drainInIndexOrder(startIndex -> results.add(DANGLING_PHASE, startIndex, startWithoutEnd(entries.get(startIndex))));
+        return results;
+    }
+
+    private void matchEnd(List<LogEntry> entries, int index, PidIndexTable pidToStartIndex, ShardResults results, int phase) {
+        LogEntry entry = entries.get(index);
+        int startIndex = pidToStartIndex.remove(entry.pid());
+        if (startIndex == PidIndexTable.NONE) {
+            results.add(phase, index, endWithoutStart(entry));
+        } else {
+            results.add(phase, index, monitor.categorizeJob(new JobExecution(entries.get(startIndex), entry)));
+        }
+    }
+
+    /**
+     * Merges the shards' results, each already ordered by phase and index, into one list ordered the same way.
+     * The shards are kept in a priority queue keyed by their next result, so each result costs log(shards).
+     */
+    private static List<JobAnalysis> merge(List<ShardResults> shardResults) {
+        int total = shardResults.stream().mapToInt(ShardResults::size).sum();
+        List<JobAnalysis> merged = new ArrayList<>(total);
+        PriorityQueue<ShardResults> byNextKey = new PriorityQueue<>(Math.max(1, shardResults.size()), Comparator.comparingLong(ShardResults::nextKey));
+        for (ShardResults results : shardResults) {
+            if (results.size() > 0) {
+                byNextKey.add(results);
+            }
+        }
+        ShardResults results;
+        while ((results = byNextKey.poll()) != null) {
+            merged.add(results.analyses.get(results.next++));
+            if (results.next < results.size()) {
+                byNextKey.add(results);
+            }
+        }
+        return merged;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while matching log entries", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Results of one shard, each with its phase in the upper and its input index in the lower half of a key.
+     */
+    private static final class ShardResults {
+        private long[] keys = new long[64];
+        private final List<JobAnalysis> analyses = new ArrayList<>();
+        private int next;
+
+        private void add(int phase, int index, JobAnalysis analysis) {
+            if (analyses.size() == keys.length) {
+                keys = Arrays.copyOf(keys, keys.length * 2);
+            }
+            keys[analyses.size()] = (long) phase << 32 | index;
+            analyses.add(analysis);
+        }
+
+        private int size() {
+            return analyses.size();
+        }
+
+        /**
+         * @return Key of the next result to merge
+         */
+        private long nextKey() {
+            return keys[next];
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.project.monitor;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash table keyed by primitive pids, so lookups, puts and removes neither box the key
+ * nor allocate nodes. Uses linear probing and backward-shift deletion, so it never fills with tombstones.
+ * Each slot packs the pid with the order it was put in, so probing reads a single array;
+ * {@link #forEachInPutOrder(Consumer)} and {@link #drainInPutOrder(Consumer)} report the values in that order.
+ * Not thread safe.
+ *
+ * @param <V> Type of the values
+ */
+final class PidTable<V> {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long MAX_PUT_ORDER = Integer.MAX_VALUE;
+
+    // put order in the upper half, pid in the lower half, 0 for a free slot
+    private long[] slots;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private long nextPutOrder = 1;
+
+    PidTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    static int slot(int pid, int mask) {
+        int hash = pid * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+
+    /**
+     * @return The value previously put for the pid, or null
+     */
+    @SuppressWarnings("unchecked")
+    V put(int pid, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null");
+        }
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+        }
+        if (nextPutOrder > MAX_PUT_ORDER) {
+            renumber();
+        }
+        long slot = nextPutOrder++ << 32 | (pid & 0xFFFF_FFFFL);
+        int index = slot(pid, mask);
+        for (long current = slots[index]; current != 0; current = slots[index]) {
+            if ((int) current == pid) {
+                V previous = (V) values[index];
+                slots[index] = slot;
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = slot;
+        values[index] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * @return The value removed for the pid, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    V remove(int pid) {
+        int index = slot(pid, mask);
+        for (long current = slots[index]; current != 0; current = slots[index]) {
+            if ((int) current == pid) {
+                V removed = (V) values[index];
+                deleteAt(index);
+                size--;
+                return removed;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Moves later entries of the probe sequence back into the freed slot, so lookups never stop early.
+     */
+    private void deleteAt(int free) {
+        int index = (free + 1) & mask;
+        for (long current = slots[index]; current != 0; current = slots[index]) {
+            int home = slot((int) current, mask);
+            if (((index - home) & mask) >= ((index - free) & mask)) {
+                slots[free] = current;
+                values[free] = values[index];
+                free = index;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[free] = 0;
+        values[free] = null;
+    }
+
+    private void grow() {
+        long[] oldSlots = slots;
+        Object[] oldValues = values;
+        allocate(oldSlots.length * 2);
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                int index = slot((int) oldSlots[i], mask);
+                while (slots[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = oldSlots[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Numbers the entries from 1 again, keeping their order, once the put order would overflow its 32 bits.
+     */
+    private void renumber() {
+        int[] occupied = occupiedInPutOrder();
+        nextPutOrder = 1;
+        for (int index : occupied) {
+            slots[index] = nextPutOrder++ << 32 | (slots[index] & 0xFFFF_FFFFL);
+        }
+    }
+
+    private int[] occupiedInPutOrder() {
+        long[] orderAndIndex = new long[size];
+        int count = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != 0) {
+                orderAndIndex[count++] = (slots[i] & ~0xFFFF_FFFFL) | i;
+            }
+        }
+        Arrays.sort(orderAndIndex);
+        int[] occupied = new int[count];
+        for (int i = 0; i < count; i++) {
+            occupied[i] = (int) orderAndIndex[i];
+        }
+        return occupied;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Hands all values to the action in the order they were put in, keeping them in the table.
+     */
+    @SuppressWarnings("unchecked")
+    void forEachInPutOrder(Consumer<? super V> action) {
+        for (int index : occupiedInPutOrder()) {
+            action.accept((V) values[index]);
+        }
+    }
+
+    /**
+     * Hands all values to the action in the order they were put in, then empties the table.
+     */
+    void drainInPutOrder(Consumer<? super V> action) {
+        forEachInPutOrder(action);
+        Arrays.fill(slots, 0);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
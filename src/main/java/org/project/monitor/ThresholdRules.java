@@ -0,0 +1,273 @@
+package org.project.monitor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Warning and fault thresholds per job family, read from a rules file with one rule per line:
+ * <pre>
+ * # kind:pattern,warning minutes,fault minutes
+ * prefix:scheduled task,3,6
+ * glob:background job ???,20,40
+ * regex:nightly (backup|export) .*,60,120
+ * </pre>
+ * Globs and regexes are matched against the whole job description; globs know {@code *} for any sequence and
+ * {@code ?} for any character, prefixes are taken literally. When several rules match, the first one in the file wins, and jobs no rule matches get the defaults.
+ * <p>
+ * Prefixes and globs are compiled into one automaton over a trie of their tokens, a prefix being a glob ending
+ * with {@code *}, so a description is matched against all of them in a single pass. Regexes are tried one by one,
+ * only those before the best match so far. Results are cached per job description, which the parser shares
+ * between entries, so each distinct description is matched once. Thread safe.
+ */
+final class ThresholdRules {
+    private static final int MAX_CACHED_DESCRIPTIONS = 1 << 16;
+    private static final int NO_RULE = Integer.MAX_VALUE;
+
+    private final JobThresholds defaults;
+    private final JobThresholds[] ruleThresholds;
+    private final GlobAutomaton globs = new GlobAutomaton();
+    private final List<Pattern> regexes = new ArrayList<>();
+    private final List<Integer> regexRules = new ArrayList<>();
+    private final ConcurrentHashMap<String, JobThresholds> cache = new ConcurrentHashMap<>();
+
+    private ThresholdRules(JobThresholds defaults, List<String> lines, Path rulesFile) {
+        this.defaults = defaults;
+        List<JobThresholds> thresholds = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            String rule = line.strip();
+            if (rule.isEmpty() || rule.startsWith("#")) {
+                continue;
+            }
+            try {
+                addRule(rule, thresholds.size());
+                thresholds.add(thresholds(rule));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Invalid rule at line %d of %s: %s", lineNumber, rulesFile, e.getMessage()), e);
+            }
+        }
+        this.ruleThresholds = thresholds.toArray(JobThresholds[]::new);
+    }
+
+    /**
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a rule is invalid
+     */
+    static ThresholdRules load(Path rulesFile, JobThresholds defaults) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(rulesFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return new ThresholdRules(defaults, lines, rulesFile);
+    }
+
+    private void addRule(String rule, int index) {
+        int kindEnd = rule.indexOf(':');
+        int faultStart = rule.lastIndexOf(',');
+        int warningStart = faultStart < 0 ? -1 : rule.lastIndexOf(',', faultStart - 1);
+        if (kindEnd < 0 || warningStart < kindEnd) {
+            throw new IllegalArgumentException("expected kind:pattern,warning minutes,fault minutes");
+        }
+        String pattern = rule.substring(kindEnd + 1, warningStart);
+        switch (rule.substring(0, kindEnd).strip()) {
+            case "prefix" -> globs.add(pattern, true, index);
+            case "glob" -> globs.add(pattern, false, index);
+            case "regex" -> {
+                try {
+                    regexes.add(Pattern.compile(pattern));
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException(e.getDescription(), e);
+                }
+                regexRules.add(index);
+            }
+            default -> throw new IllegalArgumentException(String.format("unknown kind '%s'", rule.substring(0, kindEnd)));
+        }
+    }
+
+    private static JobThresholds thresholds(String rule) {
+        int faultStart = rule.lastIndexOf(',');
+        int warningStart = rule.lastIndexOf(',', faultStart - 1);
+        try {
+            return new JobThresholds(
+                    Duration.ofMinutes(Long.parseLong(rule.substring(warningStart + 1, faultStart).strip())),
+                    Duration.ofMinutes(Long.parseLong(rule.substring(faultStart + 1).strip())));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("thresholds must be whole minutes", e);
+        }
+    }
+
+    int size() {
+        return ruleThresholds.length;
+    }
+
+    /**
+     * @return Thresholds of the first rule matching the job description, or the defaults
+     */
+    JobThresholds thresholdsFor(String jobDescription) {
+        JobThresholds thresholds = cache.get(jobDescription);
+        if (thresholds != null) {
+            return thresholds;
+        }
+        int rule = globs.firstMatch(jobDescription);
+        for (int i = 0; i < regexes.size() && regexRules.get(i) < rule; i++) {
+            if (regexes.get(i).matcher(jobDescription).matches()) {
+                rule = regexRules.get(i);
+            }
+        }
+        thresholds = rule == NO_RULE ? defaults : ruleThresholds[rule];
+        if (cache.size() < MAX_CACHED_DESCRIPTIONS) {
+            cache.putIfAbsent(jobDescription, thresholds);
+        }
+        return thresholds;
+    }
+
+    /**
+     * Nondeterministic automaton over a trie of glob tokens, run on a description by tracking the set of nodes
+     * reached so far. A node stands for the tokens on its path; a {@code *} node loops on any character and may be
+     * entered without consuming one.
+     */
+    private static final class GlobAutomaton {
+        private static final int ANY_CHAR = -1;
+        private static final int ANY_SEQUENCE = -2;
+        private static final int NONE = -1;
+
+        // node 0 is the root; children are linked through firstChild and nextSibling
+        private int[] labels = new int[64];
+        private int[] firstChild = new int[64];
+        private int[] nextSibling = new int[64];
+        private int[] rules = new int[64];
+        private int nodes;
+        // scratch space of firstMatch, guarded by this
+        private int[] current = new int[64];
+        private int[] next = new int[64];
+        private int[] visited = new int[64];
+        private int generation;
+
+        private GlobAutomaton() {
+            newNode(0);
+        }
+
+        /**
+         * @param prefix Whether the pattern is a literal prefix rather than a glob
+         */
+        private void add(String pattern, boolean prefix, int rule) {
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                int label = prefix ? c : c == '*' ? ANY_SEQUENCE : c == '?' ? ANY_CHAR : c;
+                if (label != ANY_SEQUENCE || labels[node] != ANY_SEQUENCE) {
+                    node = child(node, label);
+                }
+            }
+            if (prefix && labels[node] != ANY_SEQUENCE) {
+                node = child(node, ANY_SEQUENCE);
+            }
+            rules[node] = Math.min(rules[node], rule);
+        }
+
+        private int child(int node, int label) {
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (labels[child] == label) {
+                    return child;
+                }
+            }
+            int child = newNode(label);
+            nextSibling[child] = firstChild[node];
+            firstChild[node] = child;
+            return child;
+        }
+
+        private int newNode(int label) {
+            if (nodes == labels.length) {
+                int capacity = nodes * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                rules = Arrays.copyOf(rules, capacity);
+            }
+            labels[nodes] = label;
+            firstChild[nodes] = NONE;
+            nextSibling[nodes] = NONE;
+            rules[nodes] = NO_RULE;
+            return nodes++;
+        }
+
+        /**
+         * @return Index of the first rule whose glob matches the whole text, or {@link #NO_RULE}
+         */
+        private synchronized int firstMatch(String text) {
+            if (visited.length < nodes) {
+                visited = new int[labels.length];
+                current = new int[labels.length];
+                next = new int[labels.length];
+            }
+            int size = enter(0, current, 0, nextGeneration());
+            for (int i = 0; i < text.length() && size > 0; i++) {
+                char c = text.charAt(i);
+                int step = nextGeneration();
+                int nextSize = 0;
+                for (int j = 0; j < size; j++) {
+                    int node = current[j];
+                    if (labels[node] == ANY_SEQUENCE) {
+                        nextSize = enter(node, next, nextSize, step);
+                    }
+                    for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                        if (labels[child] == c || labels[child] == ANY_CHAR) {
+                            nextSize = enter(child, next, nextSize, step);
+                        }
+                    }
+                }
+                int[] swap = current;
+                current = next;
+                next = swap;
+                size = nextSize;
+            }
+            int rule = NO_RULE;
+            for (int j = 0; j < size; j++) {
+                rule = Math.min(rule, rules[current[j]]);
+            }
+            return rule;
+        }
+
+        /**
+         * Adds the node and the {@code *} nodes reachable from it without consuming a character.
+         *
+         * @return The new number of nodes in the set
+         */
+        private int enter(int node, int[] set, int size, int generation) {
+            if (visited[node] == generation) {
+                return size;
+            }
+            visited[node] = generation;
+            set[size++] = node;
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (labels[child] == ANY_SEQUENCE) {
+                    size = enter(child, set, size, generation);
+                }
+            }
+            return size;
+        }
+
+        private int nextGeneration() {
+            if (++generation == 0) {
+                Arrays.fill(visited, 0);
+                generation = 1;
+            }
+            return generation;
+        }
+    }
+}
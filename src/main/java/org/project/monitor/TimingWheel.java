@@ -0,0 +1,180 @@
+package org.project.monitor;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: timers expire when the wheel is advanced past their deadline tick.
+ * Each level has 64 slots, a timer sits at the level of the highest 6 bit group in which its deadline differs
+ * from the current tick, and is moved one level down when the current tick reaches that group.
+ * Scheduling, cancelling and expiring a timer are O(1), and advancing by a tick only looks at one slot per level
+ * whose lower groups roll over, however many timers are pending. Not thread safe.
+ *
+ * @param <T> Type of the values the timers carry
+ */
+final class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long currentTick) {
+        this.slots = (Timer<T>[][]) new Timer<?>[LEVELS][SLOTS];
+        this.currentTick = currentTick;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the deadline is not after the current tick
+     */
+    Timer<T> schedule(long deadlineTick, T value) {
+        Timer<T> timer = new Timer<>(value);
+        reschedule(timer, deadlineTick);
+        return timer;
+    }
+
+    /**
+     * Moves a pending or expired timer to a new deadline.
+     *
+     * @throws IllegalArgumentException if the deadline is not after the current tick
+     */
+    void reschedule(Timer<T> timer, long deadlineTick) {
+        if (deadlineTick <= currentTick) {
+            throw new IllegalArgumentException(String.format("Deadline %d is not after the current tick %d", deadlineTick, currentTick));
+        }
+        cancel(timer);
+        timer.deadlineTick = deadlineTick;
+        insert(timer);
+        size++;
+    }
+
+    /**
+     * Removes the timer if it is pending.
+     */
+    void cancel(Timer<T> timer) {
+        if (timer.level < 0) {
+            return;
+        }
+        unlink(timer);
+        size--;
+    }
+
+    /**
+     * Moves the wheel to the tick, handing every timer whose deadline is reached to the action in deadline order.
+     * The action may cancel any timer, and schedule new timers or reschedule the one it is given after the tick.
+     */
+    void advanceTo(long tick, Consumer<? super Timer<T>> action) {
+        while (currentTick < tick) {
+            if (size == 0) {
+                currentTick = tick;
+                return;
+            }
+            currentTick++;
+            cascade();
+            Timer<T> expired = slots[0][(int) (currentTick & SLOT_MASK)];
+            slots[0][(int) (currentTick & SLOT_MASK)] = null;
+            // detach the whole slot first, so the action can reschedule or cancel any of its timers
+            for (Timer<T> timer = expired; timer != null; timer = timer.next) {
+                timer.level = -1;
+                size--;
+            }
+            while (expired != null) {
+                Timer<T> next = expired.next;
+                expired.previous = null;
+                expired.next = null;
+                action.accept(expired);
+                expired = next;
+            }
+        }
+    }
+
+    /**
+     * Moves the timers of the slots the current tick has just reached down to lower levels, highest level first,
+     * so none of them lands in a slot that has already been cascaded for this tick.
+     */
+    private void cascade() {
+        int level = 0;
+        while (level + 1 < LEVELS && (currentTick & ((1L << (level + 1) * SLOT_BITS) - 1)) == 0) {
+            level++;
+        }
+        for (; level > 0; level--) {
+            int slot = (int) (currentTick >>> level * SLOT_BITS & SLOT_MASK);
+            Timer<T> timer = slots[level][slot];
+            slots[level][slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.previous = null;
+                timer.next = null;
+                insert(timer);
+                timer = next;
+            }
+        }
+    }
+
+    private void insert(Timer<T> timer) {
+        long difference = timer.deadlineTick ^ currentTick;
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(difference)) / SLOT_BITS;
+        int slot = (int) (timer.deadlineTick >>> level * SLOT_BITS & SLOT_MASK);
+        Timer<T> head = slots[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.next = head;
+        if (head != null) {
+            head.previous = timer;
+        }
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.previous == null) {
+            slots[timer.level][timer.slot] = timer.next;
+        } else {
+            timer.previous.next = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.level = -1;
+        timer.previous = null;
+        timer.next = null;
+    }
+
+    /**
+     * A value due at a tick, linked into the slot it waits in.
+     */
+    static final class Timer<T> {
+        private final T value;
+        private long deadlineTick;
+        private int level = -1;
+        private int slot;
+        private Timer<T> previous;
+        private Timer<T> next;
+
+        private Timer(T value) {
+            this.value = value;
+        }
+
+        T value() {
+            return value;
+        }
+
+        long deadlineTick() {
+            return deadlineTick;
+        }
+
+        boolean isPending() {
+            return level >= 0;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.project.parser;
+
+import org.project.model.JobEntryStatus;
+import org.project.model.LogEntry;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Byte-level parser for the default log format (comma delimiter, HH:mm:ss timestamps).
+ * Only accepts lines that {@link CsvLogParser#parseLine(String)} would parse to the same entry;
+ * any other line yields null so the caller can hand it to the String based parser,
+ * which produces the same entry or the same error.
+ */
+final class AsciiLineParser {
+    private static final byte DELIMITER = ',';
+
+    private AsciiLineParser() {
+    }
+
+    /**
+     * @param buffer       Buffer holding the line
+     * @param from         Index of the first byte of the line
+     * @param to           Index after the last byte of the line, excluding the line terminator
+     * @param descriptions Resolves the job description bytes to a shared instance
+     * @return The parsed entry, or null if the line must go through the String based parser
+     */
+    static LogEntry parse(ByteBuffer buffer, int from, int to, JobDescriptionDictionary.ByteCache descriptions) {
+        int firstDelimiter = -1;
+        int secondDelimiter = -1;
+        int thirdDelimiter = -1;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b < 0) {
+                return null;
+            }
+            if (b == DELIMITER) {
+                if (firstDelimiter < 0) {
+                    firstDelimiter = i;
+                } else if (secondDelimiter < 0) {
+                    secondDelimiter = i;
+                } else if (thirdDelimiter < 0) {
+                    thirdDelimiter = i;
+                } else {
+                    return null;
+                }
+            }
+        }
+        if (thirdDelimiter < 0) {
+            return null;
+        }
+
+        int secondOfDay = parseTime(buffer, trimStart(buffer, from, firstDelimiter), trimEnd(buffer, from, firstDelimiter));
+        if (secondOfDay < 0) {
+            return null;
+        }
+        JobEntryStatus status = parseStatus(buffer,
+                trimStart(buffer, secondDelimiter + 1, thirdDelimiter), trimEnd(buffer, secondDelimiter + 1, thirdDelimiter));
+        if (status == null) {
+            return null;
+        }
+        int pidStart = trimStart(buffer, thirdDelimiter + 1, to);
+        int pidEnd = trimEnd(buffer, thirdDelimiter + 1, to);
+        long pid = parsePid(buffer, pidStart, pidEnd);
+        if (pid == Long.MIN_VALUE) {
+            return null;
+        }
+
+        int descriptionStart = trimStart(buffer, firstDelimiter + 1, secondDelimiter);
+        int descriptionEnd = trimEnd(buffer, firstDelimiter + 1, secondDelimiter);
+        return new LogEntry(TimeUnit.SECONDS.toNanos(secondOfDay),
+                descriptions.lookup(buffer, descriptionStart, descriptionEnd), status, (int) pid);
+    }
+
+    /**
+     * @return Seconds of day for a strict HH:mm:ss value, or -1 if the field is anything else
+     */
+    private static int parseTime(ByteBuffer buffer, int from, int to) {
+        if (to - from != 8 || buffer.get(from + 2) != ':' || buffer.get(from + 5) != ':') {
+            return -1;
+        }
+        int hours = twoDigits(buffer, from);
+        int minutes = twoDigits(buffer, from + 3);
+        int seconds = twoDigits(buffer, from + 6);
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59) {
+            return -1;
+        }
+        return hours * 3600 + minutes * 60 + seconds;
+    }
+
+    private static int twoDigits(ByteBuffer buffer, int from) {
+        int tens = buffer.get(from) - '0';
+        int units = buffer.get(from + 1) - '0';
+        if (tens < 0 || tens > 9 || units < 0 || units > 9) {
+            return -1;
+        }
+        return tens * 10 + units;
+    }
+
+    private static JobEntryStatus parseStatus(ByteBuffer buffer, int from, int to) {
+        if (matchesIgnoreCase(buffer, from, to, "START")) {
+            return JobEntryStatus.START;
+        }
+        if (matchesIgnoreCase(buffer, from, to, "END")) {
+            return JobEntryStatus.END;
+        }
+        return null;
+    }
+
+    private static boolean matchesIgnoreCase(ByteBuffer buffer, int from, int to, String upperCaseValue) {
+        if (to - from != upperCaseValue.length()) {
+            return false;
+        }
+        for (int i = 0; i < upperCaseValue.length(); i++) {
+            byte b = buffer.get(from + i);
+            if (b >= 'a' && b <= 'z') {
+                b -= 'a' - 'A';
+            }
+            if (b != upperCaseValue.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mirrors {@link Integer#parseInt(String)} for ASCII input.
+     *
+     * @return The pid, or Long.MIN_VALUE if the field is not a valid int
+     */
+    private static long parsePid(ByteBuffer buffer, int from, int to) {
+        if (from == to) {
+            return Long.MIN_VALUE;
+        }
+        boolean negative = false;
+        int i = from;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == to) {
+                return Long.MIN_VALUE;
+            }
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return Long.MIN_VALUE;
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            return Long.MIN_VALUE;
+        }
+        return value;
+    }
+
+    /**
+     * Same whitespace rule as {@link String#trim()}.
+     */
+    private static int trimStart(ByteBuffer buffer, int from, int to) {
+        while (from < to && buffer.get(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(ByteBuffer buffer, int from, int to) {
+        while (to > from && buffer.get(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+}
@@ -0,0 +1,181 @@
+package org.project.parser;
+
+import org.project.model.LogEntry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parses a file in parallel: the file is split into byte ranges that start right after a '\n',
+ * the lines of every range are counted in parallel so each range knows its first line number,
+ * then the ranges are parsed on a {@link ForkJoinPool} and their entries are handed out in file order.
+ * At most two ranges per thread are parsed ahead of the consumer.
+ */
+final class ChunkedEntrySpliterator extends LogEntrySpliterator {
+    static final long MIN_CHUNK_SIZE = 1 << 20;
+    static final long MAX_CHUNK_SIZE = 8 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
+    private final CsvLogParser parser;
+    private final FileChannel channel;
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final MappedByteBuffer[] chunks;
+    private final int[] firstLineNumbers;
+    private final Queue<Future<List<LogEntry>>> inFlight = new ArrayDeque<>();
+    private int nextChunk;
+    private Iterator<LogEntry> currentChunk;
+
+    ChunkedEntrySpliterator(CsvLogParser parser, Path logFilePath, int parallelism, int windowSize) throws IOException {
+        super(logFilePath);
+        this.parser = parser;
+        this.parallelism = parallelism;
+        this.channel = FileChannel.open(logFilePath, StandardOpenOption.READ);
+        this.pool = new ForkJoinPool(parallelism);
+        try {
+            this.chunks = mapChunks(channel, chunkSize(channel.size(), parallelism, windowSize), windowSize);
+            this.firstLineNumbers = countLines(chunks);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Whether the file is large enough to be split into more than one chunk
+     */
+    static boolean isChunked(long fileSize, int windowSize) {
+        return fileSize > minChunkSize(windowSize);
+    }
+
+    private static long minChunkSize(int windowSize) {
+        return Math.min(MIN_CHUNK_SIZE, windowSize / 2);
+    }
+
+    private static long chunkSize(long fileSize, int parallelism, int windowSize) {
+        // half a window leaves room for the line that runs past each chunk's nominal end
+        long chunkSize = Math.max(fileSize / ((long) parallelism * CHUNKS_PER_THREAD), minChunkSize(windowSize));
+        return Math.min(chunkSize, Math.min(MAX_CHUNK_SIZE, windowSize / 2));
+    }
+
+    private static MappedByteBuffer[] mapChunks(FileChannel channel, long chunkSize, int windowSize) throws IOException {
+        long fileSize = channel.size();
+        List<MappedByteBuffer> chunks = new ArrayList<>();
+        long start = 0;
+        while (start < fileSize) {
+            long candidate = start + chunkSize;
+            long end = candidate >= fileSize ? fileSize : nextLineStart(channel, candidate, fileSize);
+            if (end - start > windowSize) {
+                throw new IOException(String.format(
+                        "Line starting at byte %d is longer than the mapped window of %d bytes", start, windowSize));
+            }
+            chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+            start = end;
+        }
+        return chunks.toArray(MappedByteBuffer[]::new);
+    }
+
+    /**
+     * @return The offset right after the first '\n' found at or after {@code position - 1}, or the file size if there is none
+     */
+    private static long nextLineStart(FileChannel channel, long position, long fileSize) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long offset = position - 1;
+        while (offset < fileSize) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return fileSize;
+    }
+
+    private int[] countLines(MappedByteBuffer[] chunks) throws IOException {
+        List<Future<Integer>> counts = new ArrayList<>(chunks.length);
+        for (MappedByteBuffer chunk : chunks) {
+            counts.add(pool.submit(() -> MappedLineScanner.countLines(chunk, chunk.capacity())));
+        }
+        int[] firstLineNumbers = new int[chunks.length];
+        int lineCount = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            firstLineNumbers[i] = lineCount;
+            lineCount += await(counts.get(i));
+        }
+        return firstLineNumbers;
+    }
+
+    @Override
+    protected LogEntry nextEntry() throws IOException {
+        while (currentChunk == null || !currentChunk.hasNext()) {
+            while (nextChunk < chunks.length && inFlight.size() < parallelism * CHUNKS_IN_FLIGHT_PER_THREAD) {
+                inFlight.add(submitChunk(nextChunk++));
+            }
+            Future<List<LogEntry>> chunkEntries = inFlight.poll();
+            if (chunkEntries == null) {
+                return null;
+            }
+            currentChunk = await(chunkEntries).iterator();
+        }
+        return currentChunk.next();
+    }
+
+    private Future<List<LogEntry>> submitChunk(int index) {
+        MappedByteBuffer chunk = chunks[index];
+        int firstLineNumber = firstLineNumbers[index];
+        return pool.submit(() -> {
+            MappedLineScanner scanner = new MappedLineScanner(parser, logFilePath(), firstLineNumber);
+            scanner.reset(chunk, chunk.capacity(), true);
+            List<LogEntry> chunkEntries = new ArrayList<>();
+            LogEntry entry;
+            while ((entry = scanner.next()) != null) {
+                chunkEntries.add(entry);
+            }
+            return chunkEntries;
+        });
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while parsing log file chunks");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        pool.shutdownNow();
+        channel.close();
+    }
+}
@@ -3,9 +3,14 @@ package org.project.parser;
 import lombok.extern.slf4j.Slf4j;
 import org.project.model.JobEntryStatus;
 import org.project.model.LogEntry;
+import org.project.model.LogEntryStore;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalTime;
@@ -13,25 +18,106 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Parser for CSV log files.
  * Reads log entries in the format: HH:MM:SS,job description,STATUS,PID
+ * Gzip compressed files are recognized by their magic bytes and decompressed while parsing.
+ * Entries with the same job description share one String instance.
+ * <p>
+ * The parse mode can be configured via system properties:
+ * - log.parser.mode (default: reader, or mapped)
+ * - log.parser.parallelism (default: 1), number of threads parsing chunks of a single file in mapped mode,
+ *   or inflating the members of a gzip file
+ * - log.parser.cache.dir (default: none), directory keeping parsed files as binary segments, see {@link SegmentCache}
+ * - log.parser.cache.max.bytes (default: 1 GiB), size of the segment cache
+ * - log.parser.quarantine.file (default: none), file the rejected lines are appended to, see {@link RejectedLines}
  */
 @Slf4j
 public class CsvLogParser {
+    static final DateTimeFormatter DEFAULT_TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    static final int DEFAULT_MAPPED_WINDOW_SIZE = 1 << 30;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_DISTINCT_DESCRIPTIONS = 1 << 16;
+    private static final long DEFAULT_CACHE_MAX_BYTES = 1L << 30;
+
     private final String csvDelimiter;
     private final DateTimeFormatter timeFormatter;
-
+    private final ParseMode parseMode;
+    private final int parallelism;
+    private final int mappedWindowSize;
+    private final SegmentCache segmentCache;
+    private final RejectedLines rejectedLines;
+    private final JobDescriptionDictionary descriptionDictionary = new JobDescriptionDictionary(MAX_DISTINCT_DESCRIPTIONS);
 
     public CsvLogParser() {
-        this(",", DateTimeFormatter.ofPattern("HH:mm:ss"));
+        this(",", DEFAULT_TIME_FORMATTER,
+                Optional.ofNullable(System.getProperty("log.parser.mode")).map(mode -> ParseMode.valueOf(mode.toUpperCase(Locale.ROOT))).orElse(ParseMode.READER),
+                Optional.ofNullable(System.getProperty("log.parser.parallelism")).map(Integer::parseInt).orElse(1),
+                Optional.ofNullable(System.getProperty("log.parser.cache.dir"))
+                        .map(directory -> new SegmentCache(Path.of(directory),
+                                Optional.ofNullable(System.getProperty("log.parser.cache.max.bytes")).map(Long::parseLong).orElse(DEFAULT_CACHE_MAX_BYTES)))
+                        .orElse(null),
+                new RejectedLines(Optional.ofNullable(System.getProperty("log.parser.quarantine.file")).map(Path::of).orElse(null)));
     }
 
     public CsvLogParser(String csvDelimiter, DateTimeFormatter timeFormatter) {
+        this(csvDelimiter, timeFormatter, ParseMode.READER);
+    }
+
+    public CsvLogParser(String csvDelimiter, DateTimeFormatter timeFormatter, ParseMode parseMode) {
+        this(csvDelimiter, timeFormatter, parseMode, 1);
+    }
+
+    /**
+     * @param parallelism Number of threads parsing chunks of a single file in {@link ParseMode#MAPPED},
+     *                    or inflating the members of a gzip file
+     */
+    public CsvLogParser(String csvDelimiter, DateTimeFormatter timeFormatter, ParseMode parseMode, int parallelism) {
+        this(csvDelimiter, timeFormatter, parseMode, parallelism, (SegmentCache) null);
+    }
+
+    /**
+     * @param segmentCache Cache of parsed entries consulted before parsing a file, or null to always parse
+     */
+    public CsvLogParser(String csvDelimiter, DateTimeFormatter timeFormatter, ParseMode parseMode, int parallelism, SegmentCache segmentCache) {
+        this(csvDelimiter, timeFormatter, parseMode, parallelism, segmentCache, new RejectedLines());
+    }
+
+    /**
+     * @param rejectedLines Counts, samples and optionally quarantines the lines that cannot be parsed
+     */
+    public CsvLogParser(String csvDelimiter, DateTimeFormatter timeFormatter, ParseMode parseMode, int parallelism, SegmentCache segmentCache,
+                        RejectedLines rejectedLines) {
+        this(csvDelimiter, timeFormatter, parseMode, parallelism, DEFAULT_MAPPED_WINDOW_SIZE, segmentCache, rejectedLines);
+    }
+
+    CsvLogParser(String csvDelimiter, DateTimeFormatter timeFormatter, ParseMode parseMode, int parallelism, int mappedWindowSize) {
+        this(csvDelimiter, timeFormatter, parseMode, parallelism, mappedWindowSize, null, new RejectedLines());
+    }
+
+    CsvLogParser(String csvDelimiter, DateTimeFormatter timeFormatter, ParseMode parseMode, int parallelism, int mappedWindowSize,
+                 SegmentCache segmentCache, RejectedLines rejectedLines) {
         this.csvDelimiter = Objects.requireNonNull(csvDelimiter);
         this.timeFormatter = Objects.requireNonNull(timeFormatter);
+        this.parseMode = Objects.requireNonNull(parseMode);
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        if (mappedWindowSize < 2) {
+            throw new IllegalArgumentException("mappedWindowSize must be at least 2 bytes");
+        }
+        this.mappedWindowSize = mappedWindowSize;
+        this.segmentCache = segmentCache;
+        this.rejectedLines = Objects.requireNonNull(rejectedLines);
     }
 
     /**
@@ -42,39 +128,174 @@ public class CsvLogParser {
      * @throws ParseException if there's an error while reading the file
      */
     public List<LogEntry> parse(Path logFilePath) throws ParseException {
+        List<LogEntry> entries = new ArrayList<>();
+        parse(logFilePath, entries::add);
+        return entries;
+    }
+
+    /**
+     * Parses a log file and hands each entry to the sink as soon as it is parsed, in file order.
+     *
+     * @param logFilePath Path to the log file
+     * @param sink        Receives the parsed log entries
+     * @throws ParseException if there's an error while reading the file
+     */
+    public void parse(Path logFilePath, Consumer<? super LogEntry> sink) throws ParseException {
+        try (Stream<LogEntry> entries = stream(logFilePath)) {
+            entries.forEach(sink);
+        } catch (UncheckedIOException e) {
+            throw new ParseException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Parses a log file into columnar storage, appending to the entries already in the store.
+     *
+     * @param logFilePath Path to the log file
+     * @param store       Receives the parsed log entries
+     * @throws ParseException if there's an error while reading the file
+     * @throws IllegalArgumentException if a timestamp is not a whole second, as required by the store
+     */
+    public void parse(Path logFilePath, LogEntryStore store) throws ParseException {
+        parse(logFilePath, store::add);
+    }
+
+    /**
+     * Returns a lazily parsed, sequential stream of the entries of a log file, in file order.
+     * The stream holds the file open and must be closed, e.g. with try-with-resources.
+     * Read errors, including failing to open the file, are thrown as {@link UncheckedIOException}.
+     *
+     * @param logFilePath Path to the log file
+     * @return Stream of parsed log entries
+     */
+    public Stream<LogEntry> stream(Path logFilePath) {
         if (!logFilePath.toFile().exists()) {
             throw new IllegalArgumentException("File does not exist");
         }
         log.info("Starting to parse log file: {}", logFilePath);
-        List<LogEntry> entries = new ArrayList<>();
+        LogEntrySpliterator spliterator;
+        try {
+            spliterator = segmentCache != null ? segmentCache.spliterator(this, logFilePath) : spliterator(logFilePath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return StreamSupport.stream(spliterator, false)
+                .onClose(spliterator::closeUnchecked)
+                .onClose(rejectedLines::flush);
+    }
 
-        try (BufferedReader reader = Files.newBufferedReader(logFilePath)) {
-            String line;
-            int lineNumber = 0;
+    /**
+     * @return Spliterator parsing the file, picked by compression, parse mode and size
+     */
+    LogEntrySpliterator spliterator(Path logFilePath) throws IOException {
+        if (isGzip(logFilePath)) {
+            return gzipSpliterator(logFilePath);
+        }
+        if (parseMode == ParseMode.READER) {
+            return new ReaderEntrySpliterator(logFilePath, Files.newBufferedReader(logFilePath));
+        }
+        if (parallelism > 1 && ChunkedEntrySpliterator.isChunked(Files.size(logFilePath), mappedWindowSize)) {
+            return new ChunkedEntrySpliterator(this, logFilePath, parallelism, mappedWindowSize);
+        }
+        return new MappedEntrySpliterator(this, logFilePath, mappedWindowSize);
+    }
+
+    /**
+     * Decompresses gzip input while parsing it. With a parallelism above 1, the members of a multi-member file
+     * are inflated in parallel by a {@link ParallelGzipInputStream}.
+     */
+    private LogEntrySpliterator gzipSpliterator(Path logFilePath) throws IOException {
+        InputStream decompressed = parallelism > 1 && ParallelGzipInputStream.isSupported(Files.size(logFilePath))
+                ? new ParallelGzipInputStream(logFilePath, parallelism)
+                : new GZIPInputStream(Files.newInputStream(logFilePath), GZIP_BUFFER_SIZE);
+        if (parseMode == ParseMode.READER) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(decompressed, StandardCharsets.UTF_8.newDecoder()));
+            return new ReaderEntrySpliterator(logFilePath, reader);
+        }
+        return new InputStreamEntrySpliterator(this, logFilePath, decompressed);
+    }
+
+    /**
+     * @return Whether the file starts with the gzip magic bytes
+     */
+    static boolean isGzip(Path logFilePath) throws IOException {
+        try (InputStream input = Files.newInputStream(logFilePath)) {
+            byte[] magic = input.readNBytes(2);
+            return magic.length == 2 && magic[0] == (byte) 0x1f && magic[1] == (byte) 0x8b;
+        }
+    }
+
+    /**
+     * @return Settings that change the entries parsed from a file, for keying cached segments
+     */
+    String formatKey() {
+        return csvDelimiter + "\n" + timeFormatter;
+    }
+
+    /**
+     * @return Whether lines can be parsed straight from bytes by {@link AsciiLineParser}
+     */
+    boolean isDefaultFormat() {
+        return ",".equals(csvDelimiter) && timeFormatter == DEFAULT_TIME_FORMATTER;
+    }
+
+    /**
+     * Parses a line, handing it to {@link RejectedLines} if it is invalid.
+     *
+     * @return The parsed entry, or null if the line is blank or invalid
+     */
+    LogEntry handleLine(Path logFilePath, String line, int lineNumber) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return parseLine(line);
+        } catch (ParseException e) {
+            rejectedLines.reject(logFilePath, lineNumber, line, e);
+            return null;
+        }
+    }
 
+    /**
+     * @return Counts of the lines rejected by this parser, across all files
+     */
+    public RejectedLines rejectedLines() {
+        return rejectedLines;
+    }
+
+    private final class ReaderEntrySpliterator extends LogEntrySpliterator {
+        private final BufferedReader reader;
+        private int lineNumber;
+
+        private ReaderEntrySpliterator(Path logFilePath, BufferedReader reader) {
+            super(logFilePath);
+            this.reader = reader;
+        }
+
+        @Override
+        protected LogEntry nextEntry() throws IOException {
+            String line;
             while ((line = reader.readLine()) != null) {
                 lineNumber++;
-
-                if (line.isBlank()) {
-                    log.debug("Skipping empty line at line number {}", lineNumber);
-                    continue;
+                LogEntry entry = handleLine(logFilePath(), line, lineNumber);
+                if (entry != null) {
+                    return entry;
                 }
-                final LogEntry entry;
-                try {
-                    entry = parseLine(line);
-                } catch (ParseException e) {
-                    log.warn("Failed to parse line {}: {} - {}", lineNumber, line, e.getMessage());
-                    continue;
-                }
-                entries.add(entry);
-                log.debug("Successfully parsed line {}: {}", lineNumber, entry);
             }
-        } catch (IOException e) {
-            throw new ParseException(e.getMessage(), e);
+            return null;
         }
 
-        log.info("Successfully parsed {} log entries from {}", entries.size(), logFilePath);
-        return entries;
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * @return Dictionary sharing job description instances across all files parsed by this parser
+     */
+    JobDescriptionDictionary descriptionDictionary() {
+        return descriptionDictionary;
     }
 
     /**
@@ -82,14 +303,14 @@ public class CsvLogParser {
      */
     LogEntry parseLine(String line) throws ParseException {
         if (line == null || line.isBlank()) {
-            throw new ParseException("Line is null or empty");
+            throw new ParseException("Line is null or empty", RejectReason.EMPTY);
         }
 
         String[] parts = line.split(this.csvDelimiter);
 
         if (parts.length != 4) {
             throw new ParseException(
-                String.format("Expected 4 fields but found %d. Line: %s", parts.length, line));
+                String.format("Expected 4 fields but found %d. Line: %s", parts.length, line), RejectReason.FIELD_COUNT);
         }
 
         LocalTime timestamp;
@@ -97,7 +318,7 @@ public class CsvLogParser {
             timestamp = LocalTime.parse(parts[0].trim(), this.timeFormatter);
         } catch (DateTimeParseException e) {
             throw new ParseException(
-                String.format("Invalid timestamp format: %s", parts[0]), e);
+                String.format("Invalid timestamp format: %s", parts[0]), RejectReason.TIMESTAMP, e);
         }
 
         String statusStr = parts[2].trim().toUpperCase();
@@ -106,7 +327,7 @@ public class CsvLogParser {
             status = JobEntryStatus.valueOf(statusStr);
         } catch (IllegalArgumentException e) {
             throw new ParseException(
-                String.format("Invalid status '%s'. Expected START or END", statusStr));
+                String.format("Invalid status '%s'. Expected START or END", statusStr), RejectReason.STATUS);
         }
 
         int pid;
@@ -114,11 +335,10 @@ public class CsvLogParser {
             pid = Integer.parseInt(parts[3].trim());
         } catch (NumberFormatException e) {
             throw new ParseException(
-                String.format("Invalid PID format: %s", parts[3]), e);
+                String.format("Invalid PID format: %s", parts[3]), RejectReason.PID, e);
         }
 
-        String jobDescription = parts[1].trim();
-        return new LogEntry(timestamp, jobDescription, status, pid);
+        String jobDescription = descriptionDictionary.intern(parts[1].trim());
+        return new LogEntry(timestamp.toNanoOfDay(), jobDescription, status, pid);
     }
 }
-
@@ -0,0 +1,156 @@
+package org.project.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Inflates a single member of a gzip file (RFC 1952) held in a buffer, checking its CRC32 and size trailer.
+ */
+final class GzipMember {
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final int RESERVED_FLAGS = 0xE0;
+    private static final int TRAILER_SIZE = 8;
+
+    private final ByteBuffer compressed;
+    private final int start;
+    private final int dataStart;
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private int end = -1;
+
+    /**
+     * @param compressed Buffer holding the gzip file
+     * @param start      Offset of the member's header
+     * @throws IOException if there is no valid gzip header at the offset
+     */
+    GzipMember(ByteBuffer compressed, int start) throws IOException {
+        this.compressed = compressed;
+        this.start = start;
+        this.dataStart = dataStart(compressed, start);
+        if (dataStart < 0) {
+            throw new IOException(String.format("No gzip member header at offset %d", start));
+        }
+        inflater.setInput(compressed.slice(dataStart, compressed.limit() - dataStart));
+    }
+
+    /**
+     * @return Whether a plausible member header starts at the offset; cheap enough to scan a whole file with
+     */
+    static boolean isCandidate(ByteBuffer buffer, int offset) {
+        return offset + 10 <= buffer.limit()
+                && buffer.get(offset) == (byte) 0x1f
+                && buffer.get(offset + 1) == (byte) 0x8b
+                && buffer.get(offset + 2) == 8
+                && (buffer.get(offset + 3) & RESERVED_FLAGS) == 0;
+    }
+
+    /**
+     * @return Offset of the deflate data after the member header, or -1 if the header is invalid or truncated
+     */
+    private static int dataStart(ByteBuffer buffer, int offset) {
+        if (!isCandidate(buffer, offset)) {
+            return -1;
+        }
+        int flags = buffer.get(offset + 3);
+        int position = offset + 10;
+        if ((flags & FEXTRA) != 0) {
+            if (position + 2 > buffer.limit()) {
+                return -1;
+            }
+            position += 2 + (buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).getShort(position) & 0xFFFF);
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(buffer, position);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            position = skipZeroTerminated(buffer, position);
+        }
+        if ((flags & FHCRC) != 0) {
+            position += 2;
+        }
+        return position >= 0 && position <= buffer.limit() ? position : -1;
+    }
+
+    private static int skipZeroTerminated(ByteBuffer buffer, int position) {
+        if (position < 0) {
+            return -1;
+        }
+        while (position < buffer.limit()) {
+            if (buffer.get(position++) == 0) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    int start() {
+        return start;
+    }
+
+    /**
+     * @return Offset right after the member's trailer, only known once {@link #inflate} returned -1
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * @return Number of bytes inflated into the array, or -1 once the member is complete and its trailer verified
+     * @throws IOException if the member is corrupt or truncated
+     */
+    int inflate(byte[] output, int offset, int length) throws IOException {
+        if (end >= 0) {
+            return -1;
+        }
+        try {
+            while (true) {
+                int inflated = inflater.inflate(output, offset, length);
+                if (inflated > 0) {
+                    crc.update(output, offset, inflated);
+                    return inflated;
+                }
+                if (inflater.finished()) {
+                    verifyTrailer();
+                    return -1;
+                }
+                if (inflater.needsInput() || inflater.needsDictionary()) {
+                    throw new IOException(String.format("Unexpected end of gzip member at offset %d", start));
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(String.format("Corrupt gzip member at offset %d: %s", start, e.getMessage()), e);
+        } finally {
+            if (end >= 0) {
+                inflater.end();
+            }
+        }
+    }
+
+    private void verifyTrailer() throws IOException {
+        int trailerStart = dataStart + (int) inflater.getBytesRead();
+        if (trailerStart + TRAILER_SIZE > compressed.limit()) {
+            throw new IOException(String.format("Missing trailer of gzip member at offset %d", start));
+        }
+        ByteBuffer trailer = compressed.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        long expectedCrc = trailer.getInt(trailerStart) & 0xFFFFFFFFL;
+        long expectedSize = trailer.getInt(trailerStart + 4) & 0xFFFFFFFFL;
+        if (expectedCrc != crc.getValue() || expectedSize != (inflater.getBytesWritten() & 0xFFFFFFFFL)) {
+            throw new IOException(String.format("Corrupt gzip member at offset %d: checksum mismatch", start));
+        }
+        end = trailerStart + TRAILER_SIZE;
+    }
+
+    /**
+     * Releases the inflater of a member that is abandoned before completion.
+     */
+    void release() {
+        inflater.end();
+    }
+}
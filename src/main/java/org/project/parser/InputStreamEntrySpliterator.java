@@ -0,0 +1,69 @@
+package org.project.parser;
+
+import org.project.model.LogEntry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Parses the bytes of an input stream, e.g. a decompressed file, with a {@link MappedLineScanner}.
+ * A line running past the end of the buffer is completed with the next read.
+ */
+final class InputStreamEntrySpliterator extends LogEntrySpliterator {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final InputStream input;
+    private final MappedLineScanner scanner;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int size;
+    private boolean endOfInput;
+
+    InputStreamEntrySpliterator(CsvLogParser parser, Path logFilePath, InputStream input) {
+        super(logFilePath);
+        this.input = input;
+        this.scanner = new MappedLineScanner(parser, logFilePath, 0);
+        scanner.reset(ByteBuffer.wrap(buffer), 0, false);
+    }
+
+    @Override
+    protected LogEntry nextEntry() throws IOException {
+        while (true) {
+            LogEntry entry = scanner.next();
+            if (entry != null || endOfInput) {
+                return entry;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Moves the unparsed bytes to the start of the buffer and reads more after them.
+     */
+    private void fill() throws IOException {
+        int pending = size - scanner.position();
+        if (pending == buffer.length) {
+            byte[] larger = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, larger, 0, pending);
+            buffer = larger;
+        } else {
+            System.arraycopy(buffer, scanner.position(), buffer, 0, pending);
+        }
+        size = pending;
+        while (size < buffer.length) {
+            int read = input.read(buffer, size, buffer.length - size);
+            if (read < 0) {
+                endOfInput = true;
+                break;
+            }
+            size += read;
+        }
+        scanner.reset(ByteBuffer.wrap(buffer), size, endOfInput);
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
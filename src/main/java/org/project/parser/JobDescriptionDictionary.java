@@ -0,0 +1,96 @@
+package org.project.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares one String instance per distinct job description across all entries parsed by a {@link CsvLogParser},
+ * so repeated descriptions cost a reference instead of a copy and compare by identity in {@link String#equals(Object)}.
+ * Thread safe; once {@code maxSize} descriptions are held, further new ones are returned as is.
+ */
+final class JobDescriptionDictionary {
+    private static final int BYTE_CACHE_SIZE = 4096;
+
+    private final ConcurrentHashMap<String, String> descriptions = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    JobDescriptionDictionary(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The shared instance equal to the description
+     */
+    String intern(String description) {
+        String shared = descriptions.get(description);
+        if (shared != null) {
+            return shared;
+        }
+        if (descriptions.size() >= maxSize) {
+            return description;
+        }
+        shared = descriptions.putIfAbsent(description, description);
+        return shared != null ? shared : description;
+    }
+
+    int size() {
+        return descriptions.size();
+    }
+
+    /**
+     * @return A cache resolving ASCII description bytes without decoding them, for use by a single thread
+     */
+    ByteCache newByteCache() {
+        return new ByteCache();
+    }
+
+    /**
+     * Direct-mapped cache from description bytes to the shared instance, so a hit allocates nothing.
+     */
+    final class ByteCache {
+        private final byte[][] keys = new byte[BYTE_CACHE_SIZE][];
+        private final String[] values = new String[BYTE_CACHE_SIZE];
+
+        private ByteCache() {
+        }
+
+        /**
+         * @param from Index of the first byte of the description
+         * @param to   Index after the last byte of the description
+         * @return The shared instance for the ASCII bytes
+         */
+        String lookup(ByteBuffer buffer, int from, int to) {
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            int slot = (hash ^ hash >>> 16) & (BYTE_CACHE_SIZE - 1);
+            byte[] key = keys[slot];
+            if (key != null && matches(key, buffer, from, to)) {
+                return values[slot];
+            }
+            key = new byte[to - from];
+            buffer.get(from, key);
+            String description = intern(new String(key, StandardCharsets.ISO_8859_1));
+            keys[slot] = key;
+            values[slot] = description;
+            return description;
+        }
+
+        private static boolean matches(byte[] key, ByteBuffer buffer, int from, int to) {
+            if (key.length != to - from) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != buffer.get(from + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.project.parser;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.model.DayRollover;
+import org.project.model.LogEntry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Base for the sequential, ordered spliterators backing {@link CsvLogParser#stream(Path)}.
+ * Read errors are rethrown as {@link UncheckedIOException}, the way {@link java.nio.file.Files#lines(Path)} does.
+ * Entries are parsed on the log's first day and moved to their day here, in file order, by a {@link DayRollover}.
+ */
+@Slf4j
+abstract class LogEntrySpliterator extends Spliterators.AbstractSpliterator<LogEntry> implements Closeable {
+    private final Path logFilePath;
+    private final DayRollover dayRollover = new DayRollover();
+    private long parsedEntries;
+    private boolean finished;
+
+    protected LogEntrySpliterator(Path logFilePath) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.logFilePath = logFilePath;
+    }
+
+    Path logFilePath() {
+        return logFilePath;
+    }
+
+    /**
+     * @return The next parsed entry, or null once the input is exhausted
+     */
+    protected abstract LogEntry nextEntry() throws IOException;
+
+    @Override
+    public boolean tryAdvance(Consumer<? super LogEntry> action) {
+        if (finished) {
+            return false;
+        }
+        LogEntry entry;
+        try {
+            entry = nextEntry();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (entry == null) {
+            finished = true;
+            log.info("Successfully parsed {} log entries from {}", parsedEntries, logFilePath);
+            return false;
+        }
+        parsedEntries++;
+        action.accept(dayRollover.resolve(entry));
+        return true;
+    }
+
+    /**
+     * Closes the underlying file, rethrowing failures as {@link UncheckedIOException} so it can be used as a stream close handler.
+     */
+    void closeUnchecked() {
+        try {
+            close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
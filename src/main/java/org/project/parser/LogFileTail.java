@@ -0,0 +1,201 @@
+package org.project.parser;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.model.DayRollover;
+import org.project.model.LogEntry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Reads the lines appended to a log file since the previous read, like {@code tail -F}.
+ * Only complete lines are parsed, a partially written last line waits for its terminator.
+ * <p>
+ * A file that shrinks below the read offset is treated as truncated and read again from the start.
+ * A file replaced by a new one under the same path (rotation) is read to its end first,
+ * then the new file is read from the start. Entries are moved to their day by a {@link DayRollover}, which carries on
+ * across rotations.
+ */
+@Slf4j
+public class LogFileTail implements Closeable {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final CsvLogParser parser;
+    private final Path logFilePath;
+    private final DayRollover dayRollover;
+    private FileChannel channel;
+    private Object fileKey;
+    private long readPosition;
+    private int resumedLineNumber;
+    private ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private MappedLineScanner scanner;
+
+    public LogFileTail(CsvLogParser parser, Path logFilePath) {
+        this(parser, logFilePath, 0, 0);
+    }
+
+    /**
+     * @param offset     Offset of the first line to read, e.g. a previously saved {@link #offset()}
+     * @param lineNumber Number of lines before the offset, e.g. the {@link #lineNumber()} saved with it
+     */
+    public LogFileTail(CsvLogParser parser, Path logFilePath, long offset, int lineNumber) {
+        this(parser, logFilePath, offset, lineNumber, new DayRollover());
+    }
+
+    /**
+     * @param dayRollover Moves the entries to their day, e.g. continuing the days read before the offset
+     */
+    public LogFileTail(CsvLogParser parser, Path logFilePath, long offset, int lineNumber, DayRollover dayRollover) {
+        this.parser = Objects.requireNonNull(parser);
+        this.logFilePath = Objects.requireNonNull(logFilePath);
+        if (offset < 0 || lineNumber < 0) {
+            throw new IllegalArgumentException("offset and lineNumber cannot be negative");
+        }
+        this.dayRollover = Objects.requireNonNull(dayRollover);
+        this.readPosition = offset;
+        this.resumedLineNumber = lineNumber;
+        this.scanner = new MappedLineScanner(parser, logFilePath, lineNumber);
+    }
+
+    public Path logFilePath() {
+        return logFilePath;
+    }
+
+    /**
+     * @return Offset in the current file of the first byte not yet parsed, always at a line start
+     */
+    public long offset() {
+        return readPosition - buffer.position();
+    }
+
+    /**
+     * @return Number of lines in the current file before the {@link #offset()}
+     */
+    public int lineNumber() {
+        return scanner.lineNumber();
+    }
+
+    /**
+     * @return First time read, in nanos since the midnight starting its day, or -1 if nothing was read yet
+     */
+    public long firstNanos() {
+        return dayRollover.firstNanos();
+    }
+
+    /**
+     * @return Latest time read, in nanos since the midnight starting the first day, or -1 if nothing was read yet
+     */
+    public long latestNanos() {
+        return dayRollover.latestNanos();
+    }
+
+    /**
+     * Parses the complete lines appended since the previous call.
+     *
+     * @param sink Receives the parsed log entries, in file order
+     * @return Number of entries parsed
+     */
+    public int poll(Consumer<? super LogEntry> sink) throws IOException {
+        int parsed = readChanges(sink);
+        parser.rejectedLines().flush();
+        return parsed;
+    }
+
+    private int readChanges(Consumer<? super LogEntry> sink) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(logFilePath, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // rotated away and not recreated yet, the writer may still append to the old file
+            return channel == null ? 0 : readAppended(sink);
+        }
+
+        if (channel == null) {
+            open(attributes);
+        } else if (!Objects.equals(fileKey, attributes.fileKey()) && attributes.fileKey() != null) {
+            int parsed = readAppended(sink) + readUnterminatedLine(sink);
+            log.info("Log file {} was rotated, reading the new file from the start", logFilePath);
+            channel.close();
+            readPosition = 0;
+            resumedLineNumber = 0;
+            open(attributes);
+            return parsed + readAppended(sink);
+        } else if (channel.size() < readPosition) {
+            log.info("Log file {} was truncated, reading it again from the start", logFilePath);
+            readPosition = 0;
+            resumedLineNumber = 0;
+            buffer.clear();
+            scanner = new MappedLineScanner(parser, logFilePath, 0);
+        }
+        return readAppended(sink);
+    }
+
+    private void open(BasicFileAttributes attributes) throws IOException {
+        channel = FileChannel.open(logFilePath, StandardOpenOption.READ);
+        fileKey = attributes.fileKey();
+        buffer.clear();
+        if (readPosition > channel.size()) {
+            log.info("Log file {} is shorter than offset {}, reading it from the start", logFilePath, readPosition);
+            readPosition = 0;
+            resumedLineNumber = 0;
+        }
+        scanner = new MappedLineScanner(parser, logFilePath, resumedLineNumber);
+    }
+
+    /**
+     * Reads from the current channel up to its end. Bytes of an incomplete last line stay at the start of the buffer.
+     */
+    private int readAppended(Consumer<? super LogEntry> sink) throws IOException {
+        int parsed = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+            int read = channel.read(buffer, readPosition);
+            if (read <= 0) {
+                return parsed;
+            }
+            readPosition += read;
+
+            scanner.reset(buffer, buffer.position(), false);
+            LogEntry entry;
+            while ((entry = scanner.next()) != null) {
+                sink.accept(dayRollover.resolve(entry));
+                parsed++;
+            }
+            buffer.flip().position(scanner.position());
+            buffer.compact();
+        }
+    }
+
+    /**
+     * Parses the pending bytes as the last line of a file that will not grow anymore.
+     */
+    private int readUnterminatedLine(Consumer<? super LogEntry> sink) throws IOException {
+        scanner.reset(buffer, buffer.position(), true);
+        int parsed = 0;
+        LogEntry entry;
+        while ((entry = scanner.next()) != null) {
+            sink.accept(dayRollover.resolve(entry));
+            parsed++;
+        }
+        buffer.clear();
+        return parsed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.project.parser;
+
+import org.project.model.LogEntry;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Maps the file window by window and parses it with a {@link MappedLineScanner}.
+ * A line running past the end of a window is parsed from the start of the next one.
+ */
+final class MappedEntrySpliterator extends LogEntrySpliterator {
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final MappedLineScanner scanner;
+    private long windowPosition;
+    private int currentWindowSize;
+    private boolean lastWindow;
+
+    MappedEntrySpliterator(CsvLogParser parser, Path logFilePath, int windowSize) throws IOException {
+        super(logFilePath);
+        this.channel = FileChannel.open(logFilePath, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        this.scanner = new MappedLineScanner(parser, logFilePath, 0);
+    }
+
+    @Override
+    protected LogEntry nextEntry() throws IOException {
+        while (true) {
+            if (currentWindowSize > 0) {
+                LogEntry entry = scanner.next();
+                if (entry != null) {
+                    return entry;
+                }
+                if (lastWindow) {
+                    return null;
+                }
+                if (scanner.position() == 0) {
+                    throw new IOException(String.format(
+                            "Line %d is longer than the mapped window of %d bytes", scanner.lineNumber() + 1, windowSize));
+                }
+                windowPosition += scanner.position();
+            }
+            if (windowPosition >= fileSize) {
+                return null;
+            }
+            currentWindowSize = (int) Math.min(fileSize - windowPosition, windowSize);
+            lastWindow = windowPosition + currentWindowSize == fileSize;
+            scanner.reset(channel.map(FileChannel.MapMode.READ_ONLY, windowPosition, currentWindowSize), currentWindowSize, lastWindow);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
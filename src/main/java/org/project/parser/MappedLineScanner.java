@@ -0,0 +1,124 @@
+package org.project.parser;
+
+import org.project.model.LogEntry;
+
+import java.io.BufferedReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Splits mapped bytes into lines on the same terminators as {@link BufferedReader#readLine()} and parses them.
+ * Lines of the default format are parsed straight from the bytes, the remaining ones are decoded
+ * and go through {@link CsvLogParser#handleLine(Path, String, int)}, so results and skipped lines match the reader mode.
+ */
+final class MappedLineScanner {
+    private final CsvLogParser parser;
+    private final Path logFilePath;
+    private final boolean bytesFastPath;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private final JobDescriptionDictionary.ByteCache descriptions;
+    private ByteBuffer buffer;
+    private int size;
+    private boolean endOfInput;
+    private int position;
+    private int lineNumber;
+
+    /**
+     * @param lineNumber Number of lines preceding the first buffer
+     */
+    MappedLineScanner(CsvLogParser parser, Path logFilePath, int lineNumber) {
+        this.parser = parser;
+        this.logFilePath = logFilePath;
+        this.bytesFastPath = parser.isDefaultFormat();
+        this.descriptions = parser.descriptionDictionary().newByteCache();
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * @param endOfInput Whether the buffer ends the input, otherwise an unterminated last line is left for the next buffer
+     */
+    void reset(ByteBuffer buffer, int size, boolean endOfInput) {
+        this.buffer = buffer;
+        this.size = size;
+        this.endOfInput = endOfInput;
+        this.position = 0;
+    }
+
+    /**
+     * @return The next parsed entry, or null when the buffer holds no further complete line
+     */
+    LogEntry next() throws CharacterCodingException {
+        while (position < size) {
+            int lineStart = position;
+            int lineEnd = lineStart;
+            while (lineEnd < size && buffer.get(lineEnd) != '\n' && buffer.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            int nextLineStart;
+            if (lineEnd == size) {
+                if (!endOfInput) {
+                    return null;
+                }
+                nextLineStart = size;
+            } else if (buffer.get(lineEnd) == '\r') {
+                if (lineEnd + 1 < size) {
+                    nextLineStart = buffer.get(lineEnd + 1) == '\n' ? lineEnd + 2 : lineEnd + 1;
+                } else if (endOfInput) {
+                    nextLineStart = lineEnd + 1;
+                } else {
+                    // a '\n' completing this terminator may start the next buffer
+                    return null;
+                }
+            } else {
+                nextLineStart = lineEnd + 1;
+            }
+
+            lineNumber++;
+            position = nextLineStart;
+            LogEntry entry = bytesFastPath ? AsciiLineParser.parse(buffer, lineStart, lineEnd, descriptions) : null;
+            if (entry == null) {
+                entry = parser.handleLine(logFilePath, decoder.decode(buffer.slice(lineStart, lineEnd - lineStart)).toString(), lineNumber);
+            }
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Number of bytes of the current buffer consumed so far, always at a line start
+     */
+    int position() {
+        return position;
+    }
+
+    int lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Counts lines the way {@link #next()} splits them when the buffer ends the input.
+     */
+    static int countLines(ByteBuffer buffer, int size) {
+        int lines = 0;
+        for (int i = 0; i < size; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                lines++;
+            } else if (b == '\r') {
+                lines++;
+                if (i + 1 < size && buffer.get(i + 1) == '\n') {
+                    i++;
+                }
+            }
+        }
+        if (size > 0 && buffer.get(size - 1) != '\n' && buffer.get(size - 1) != '\r') {
+            lines++;
+        }
+        return lines;
+    }
+}
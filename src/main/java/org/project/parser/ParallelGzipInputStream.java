@@ -0,0 +1,240 @@
+package org.project.parser;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decompresses a multi-member gzip file, inflating members in parallel and returning their bytes in file order.
+ * <p>
+ * The first member is streamed on the reading thread, like {@link java.util.zip.GZIPInputStream} does, so a
+ * single-member file, whose first member ends at the end of the file, is inflated sequentially and never scanned.
+ * <p>
+ * Later member boundaries are only known once the previous member is inflated, so the rest of the file is scanned
+ * for byte sequences that look like member headers and each candidate is inflated speculatively on the pool.
+ * When the member in turn starts at a candidate that was inflated successfully, including its CRC check,
+ * its bytes are used as is. Candidates that turn out to lie inside another member are discarded and stop inflating.
+ * The candidates in flight share {@link #MAX_BUFFERED_BYTES}: each gives up once its output exceeds its share, and
+ * members that were given up on or not inflated ahead are streamed on the reading thread.
+ * Bytes after the last member that do not form a member header are ignored, as {@link java.util.zip.GZIPInputStream} does.
+ */
+@Slf4j
+final class ParallelGzipInputStream extends InputStream {
+    static final int MAX_BUFFERED_BYTES = 256 << 20;
+    private static final int MAX_SPECULATIVE_MEMBER_SIZE = 64 << 20;
+    private static final int OUTPUT_CHUNK_SIZE = 256 * 1024;
+    private static final int MEMBERS_IN_FLIGHT_PER_THREAD = 2;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer compressed;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+    private final int maxSpeculativeMemberSize;
+    private final TreeMap<Integer, Speculation> speculative = new TreeMap<>();
+    private int nextCandidate;
+    private int memberStart;
+    private GzipMember streamedMember;
+    private byte[] chunk = new byte[0];
+    private int chunkPosition;
+    private int chunkLength;
+
+    ParallelGzipInputStream(Path gzipFilePath, int parallelism) throws IOException {
+        this.channel = FileChannel.open(gzipFilePath, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format("Gzip file %s is too large to map (%d bytes)", gzipFilePath, size));
+            }
+            this.compressed = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.maxInFlight = parallelism * MEMBERS_IN_FLIGHT_PER_THREAD;
+        this.maxSpeculativeMemberSize = Math.clamp(Integer.highestOneBit(MAX_BUFFERED_BYTES / maxInFlight), OUTPUT_CHUNK_SIZE, MAX_SPECULATIVE_MEMBER_SIZE);
+    }
+
+    /**
+     * @return Whether the file is small enough to be decompressed by this stream
+     */
+    static boolean isSupported(long fileSize) {
+        return fileSize <= Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (chunkPosition == chunkLength) {
+            if (!nextChunk()) {
+                return -1;
+            }
+        }
+        int read = Math.min(length, chunkLength - chunkPosition);
+        System.arraycopy(chunk, chunkPosition, buffer, offset, read);
+        chunkPosition += read;
+        return read;
+    }
+
+    /**
+     * @return false once all members are read
+     */
+    private boolean nextChunk() throws IOException {
+        if (streamedMember != null) {
+            if (chunk.length != OUTPUT_CHUNK_SIZE) {
+                chunk = new byte[OUTPUT_CHUNK_SIZE];
+            }
+            int inflated = streamedMember.inflate(chunk, 0, chunk.length);
+            if (inflated >= 0) {
+                setChunk(chunk, inflated);
+                return true;
+            }
+            memberStart = streamedMember.end();
+            streamedMember = null;
+        }
+        if (memberStart >= compressed.limit()) {
+            return false;
+        }
+
+        // the first member is streamed without looking for others, which a single-member file never has
+        if (memberStart > 0) {
+            discardCandidatesBefore(memberStart);
+            scheduleCandidates();
+        }
+        Speculation inflatedAhead = speculative.remove(memberStart);
+        InflatedMember member = inflatedAhead == null ? null : await(inflatedAhead.result());
+        if (member != null) {
+            memberStart = member.end();
+            setChunk(member.bytes(), member.length());
+            return true;
+        }
+
+        if (!GzipMember.isCandidate(compressed, memberStart)) {
+            if (memberStart == 0) {
+                throw new IOException("Not in GZIP format");
+            }
+            log.debug("Ignoring {} trailing bytes after the last gzip member", compressed.limit() - memberStart);
+            memberStart = compressed.limit();
+            return false;
+        }
+        streamedMember = new GzipMember(compressed, memberStart);
+        setChunk(chunk, 0);
+        return true;
+    }
+
+    private void setChunk(byte[] bytes, int length) {
+        chunk = bytes;
+        chunkPosition = 0;
+        chunkLength = length;
+    }
+
+    private void discardCandidatesBefore(int offset) {
+        Map<Integer, Speculation> stale = speculative.headMap(offset);
+        stale.values().forEach(Speculation::cancel);
+        stale.clear();
+        nextCandidate = Math.max(nextCandidate, offset);
+    }
+
+    private void scheduleCandidates() {
+        int limit = compressed.limit();
+        while (speculative.size() < maxInFlight && nextCandidate < limit) {
+            int candidate = nextCandidate++;
+            if (GzipMember.isCandidate(compressed, candidate)) {
+                AtomicBoolean cancelled = new AtomicBoolean();
+                speculative.put(candidate, new Speculation(pool.submit(() -> inflateMember(candidate, cancelled)), cancelled));
+            }
+        }
+    }
+
+    /**
+     * @return The inflated member, or null if there is no valid member at the offset, it is larger than its share
+     * of the buffered bytes or it was discarded
+     */
+    private InflatedMember inflateMember(int start, AtomicBoolean cancelled) {
+        GzipMember member;
+        try {
+            member = new GzipMember(compressed, start);
+        } catch (IOException e) {
+            return null;
+        }
+        byte[] output = new byte[OUTPUT_CHUNK_SIZE];
+        int length = 0;
+        try {
+            while (!cancelled.get()) {
+                if (length == output.length) {
+                    if (output.length >= maxSpeculativeMemberSize) {
+                        break;
+                    }
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                int inflated = member.inflate(output, length, output.length - length);
+                if (inflated < 0) {
+                    return new InflatedMember(output, length, member.end());
+                }
+                length += inflated;
+            }
+        } catch (IOException e) {
+            log.trace("Candidate at offset {} is not a gzip member: {}", start, e.getMessage());
+        }
+        member.release();
+        return null;
+    }
+
+    private InflatedMember await(Future<InflatedMember> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while inflating gzip members");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param end Offset right after the member's trailer
+     */
+    private record InflatedMember(byte[] bytes, int length, int end) {
+    }
+
+    /**
+     * @param cancelled Set once the candidate is discarded, so its task stops inflating and frees its output
+     */
+    private record Speculation(Future<InflatedMember> result, AtomicBoolean cancelled) {
+        private void cancel() {
+            cancelled.set(true);
+            result.cancel(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        speculative.values().forEach(Speculation::cancel);
+        pool.shutdownNow();
+        if (streamedMember != null) {
+            streamedMember.release();
+        }
+        channel.close();
+    }
+}
@@ -4,12 +4,30 @@ package org.project.parser;
  * Exception thrown when parsing a log entry fails.
  */
 public class ParseException extends Exception {
+    private final RejectReason reason;
+
     public ParseException(String message) {
-        super(message);
+        this(message, (RejectReason) null);
     }
 
     public ParseException(String message, Throwable cause) {
+        this(message, null, cause);
+    }
+
+    public ParseException(String message, RejectReason reason) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public ParseException(String message, RejectReason reason, Throwable cause) {
         super(message, cause);
+        this.reason = reason;
     }
-}
 
+    /**
+     * @return Why the line was rejected, or null if the failure is not about a single line
+     */
+    public RejectReason getReason() {
+        return reason;
+    }
+}
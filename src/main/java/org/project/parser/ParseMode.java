@@ -0,0 +1,16 @@
+package org.project.parser;
+
+/**
+ * Selects how {@link CsvLogParser} reads a log file.
+ */
+public enum ParseMode {
+    /**
+     * Reads the file line by line through a {@link java.io.BufferedReader}.
+     */
+    READER,
+    /**
+     * Memory-maps the file and scans the raw bytes, falling back to the reader
+     * rules only for lines that are not plain ASCII or not well-formed.
+     */
+    MAPPED
+}
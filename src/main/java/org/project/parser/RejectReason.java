@@ -0,0 +1,12 @@
+package org.project.parser;
+
+/**
+ * Why a log line was rejected by {@link CsvLogParser}.
+ */
+public enum RejectReason {
+    EMPTY,
+    FIELD_COUNT,
+    TIMESTAMP,
+    STATUS,
+    PID
+}
@@ -0,0 +1,143 @@
+package org.project.parser;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the lines rejected by a {@link CsvLogParser}: counts them per reason, logs a sample of them,
+ * and optionally appends all of them to a quarantine file.
+ * <p>
+ * The first {@link #LOGGED_PER_REASON} rejections of each reason are logged, after that at most one summary per reason
+ * every {@link #LOG_INTERVAL_NANOS}, so a corrupt file does not turn parsing into logging.
+ * Quarantined lines are written through a buffer as {@code file<TAB>line number<TAB>reason<TAB>line}
+ * and reach the file once the buffer fills, on {@link #flush()} or on {@link #close()}. Thread safe.
+ */
+@Slf4j
+public class RejectedLines implements Closeable {
+    static final int LOGGED_PER_REASON = 10;
+    static final long LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int QUARANTINE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path quarantineFile;
+    private final Map<RejectReason, AtomicLong> counts = new EnumMap<>(RejectReason.class);
+    private final Map<RejectReason, AtomicLong> lastLogged = new EnumMap<>(RejectReason.class);
+    private BufferedWriter quarantine;
+    private boolean unflushed;
+
+    public RejectedLines() {
+        this(null);
+    }
+
+    /**
+     * @param quarantineFile File the rejected lines are appended to, created on the first rejection; null to only count them
+     */
+    public RejectedLines(Path quarantineFile) {
+        this.quarantineFile = quarantineFile;
+        for (RejectReason reason : RejectReason.values()) {
+            counts.put(reason, new AtomicLong());
+            lastLogged.put(reason, new AtomicLong(System.nanoTime() - LOG_INTERVAL_NANOS));
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException if the line cannot be written to the quarantine file
+     */
+    void reject(Path logFilePath, int lineNumber, String line, ParseException e) {
+        RejectReason reason = e.getReason();
+        long count = counts.get(reason).incrementAndGet();
+        if (count <= LOGGED_PER_REASON) {
+            log.warn("Failed to parse line {}: {} - {}", lineNumber, line, e.getMessage());
+        } else {
+            AtomicLong logged = lastLogged.get(reason);
+            long last = logged.get();
+            long now = System.nanoTime();
+            if (now - last >= LOG_INTERVAL_NANOS && logged.compareAndSet(last, now)) {
+                log.warn("Rejected {} lines for {} so far, latest is line {} of {}: {}", count, reason, lineNumber, logFilePath, e.getMessage());
+            }
+        }
+        if (quarantineFile != null) {
+            quarantine(logFilePath, lineNumber, line, reason);
+        }
+    }
+
+    private synchronized void quarantine(Path logFilePath, int lineNumber, String line, RejectReason reason) {
+        try {
+            if (quarantine == null) {
+                quarantine = new BufferedWriter(Files.newBufferedWriter(quarantineFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND), QUARANTINE_BUFFER_SIZE);
+            }
+            quarantine.append(String.valueOf(logFilePath)).append('\t')
+                    .append(String.valueOf(lineNumber)).append('\t')
+                    .append(reason.name()).append('\t')
+                    .append(line).append('\n');
+            unflushed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to quarantine line %d of %s", lineNumber, logFilePath), e);
+        }
+    }
+
+    /**
+     * @return Number of lines rejected for the reason
+     */
+    public long count(RejectReason reason) {
+        return counts.get(reason).get();
+    }
+
+    /**
+     * @return Number of lines rejected for any reason
+     */
+    public long total() {
+        return counts.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    /**
+     * @return Counts of the reasons lines were rejected for
+     */
+    public Map<RejectReason, Long> counts() {
+        Map<RejectReason, Long> snapshot = new EnumMap<>(RejectReason.class);
+        counts.forEach((reason, count) -> {
+            if (count.get() > 0) {
+                snapshot.put(reason, count.get());
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Writes the buffered quarantined lines to the file.
+     *
+     * @throws UncheckedIOException if the quarantine file cannot be written
+     */
+    public synchronized void flush() {
+        if (!unflushed) {
+            return;
+        }
+        try {
+            quarantine.flush();
+            unflushed = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to write quarantine file %s", quarantineFile), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (quarantine != null) {
+            quarantine.close();
+            quarantine = null;
+            unflushed = false;
+        }
+    }
+}
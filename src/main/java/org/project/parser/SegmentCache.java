@@ -0,0 +1,294 @@
+package org.project.parser;
+
+import lombok.extern.slf4j.Slf4j;
+import org.project.model.LogEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the entries parsed from a log file in a compact binary segment, so later runs over an unchanged file
+ * memory-map the segment instead of parsing the file again.
+ * <p>
+ * Segments are named after the absolute source path and the parser's delimiter and time format, and record the
+ * source's size and modification time; a segment that does not match the source any more is rebuilt.
+ * When the segments exceed the size limit, the least recently used ones are deleted.
+ * Lines skipped while building a segment are logged once, not on later runs.
+ * <p>
+ * Segment layout, big-endian: a header (magic, version, source size, source modification time in millis,
+ * entry count, offset of the description table, length-prefixed UTF-8 key), then one 12 byte row per entry
+ * (seconds since the log's first midnight shifted left by one with the status in the lowest bit, pid, description id),
+ * then the description table (count, then length-prefixed UTF-8 descriptions).
+ */
+@Slf4j
+public class SegmentCache {
+    static final int MAGIC = 0x4C4D5347;
+    static final int VERSION = 1;
+    static final int FIXED_HEADER_SIZE = 44;
+    static final int ROW_SIZE = 12;
+    private static final long MAX_SECOND = Integer.MAX_VALUE >>> 1;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * @param directory Directory holding the segments, created if missing
+     * @param maxBytes  Total size of the segments above which the least recently used ones are deleted
+     */
+    public SegmentCache(Path directory, long maxBytes) {
+        this.directory = Objects.requireNonNull(directory);
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return Entries of the log file read from its segment, which is built first if missing or stale.
+     * Falls back to parsing the file if the segment cannot be written.
+     */
+    LogEntrySpliterator spliterator(CsvLogParser parser, Path logFilePath) throws IOException {
+        String key = logFilePath.toAbsolutePath().normalize() + "\n" + parser.formatKey();
+        Path segmentPath = directory.resolve(segmentName(key));
+        BasicFileAttributes source = Files.readAttributes(logFilePath, BasicFileAttributes.class);
+
+        SegmentEntrySpliterator cached = SegmentEntrySpliterator.open(logFilePath, segmentPath, key, source, parser.descriptionDictionary());
+        if (cached != null) {
+            log.debug("Reading {} from cached segment {}", logFilePath, segmentPath);
+            touch(segmentPath);
+            return cached;
+        }
+
+        Path built;
+        try {
+            built = build(parser, logFilePath, segmentPath, key, source);
+        } catch (IOException e) {
+            log.warn("Failed to write cached segment for {}: {}", logFilePath, e.getMessage());
+            built = null;
+        }
+        if (built != null) {
+            try {
+                evict(built);
+            } catch (IOException e) {
+                log.warn("Failed to evict cached segments from {}: {}", directory, e.getMessage());
+            }
+            cached = SegmentEntrySpliterator.open(logFilePath, built, key, source, parser.descriptionDictionary());
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return parser.spliterator(logFilePath);
+    }
+
+    /**
+     * @return The segment, or null if the source cannot be cached or changed while it was parsed
+     */
+    private Path build(CsvLogParser parser, Path logFilePath, Path segmentPath, String key, BasicFileAttributes source) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, segmentPath.getFileName().toString(), ".tmp");
+        try {
+            boolean complete;
+            long entries;
+            try (LogEntrySpliterator spliterator = parser.spliterator(logFilePath);
+                 SegmentWriter writer = new SegmentWriter(temporary, key, source)) {
+                complete = writer.writeAll(spliterator);
+                entries = writer.entries;
+            }
+            if (!complete) {
+                log.info("Not caching {}, its timestamps are not whole seconds", logFilePath);
+                return null;
+            }
+            BasicFileAttributes parsed = Files.readAttributes(logFilePath, BasicFileAttributes.class);
+            if (parsed.size() != source.size() || !parsed.lastModifiedTime().equals(source.lastModifiedTime())) {
+                log.info("Not caching {}, it changed while being parsed", logFilePath);
+                return null;
+            }
+            Files.move(temporary, segmentPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Cached {} entries of {} in {}", entries, logFilePath, segmentPath);
+            return segmentPath;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Deletes the least recently used segments until the cache fits its size limit, keeping the given one.
+     */
+    private void evict(Path keep) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    segments.add(new Segment(file, attributes.size(), attributes.lastModifiedTime()));
+                } catch (NoSuchFileException e) {
+                    // evicted concurrently
+                }
+            }
+        }
+        long total = segments.stream().mapToLong(Segment::size).sum();
+        segments.sort(Comparator.comparing(Segment::lastUsed));
+        for (Segment segment : segments) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (!segment.path().equals(keep)) {
+                Files.deleteIfExists(segment.path());
+                total -= segment.size();
+                log.debug("Evicted cached segment {}", segment.path());
+            }
+        }
+    }
+
+    /**
+     * Marks the segment as recently used by updating its modification time.
+     */
+    private static void touch(Path segmentPath) {
+        try {
+            Files.setLastModifiedTime(segmentPath, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to update last use of {}", segmentPath, e);
+        }
+    }
+
+    private static String segmentName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16) + SEGMENT_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Segment(Path path, long size, FileTime lastUsed) {
+    }
+
+    /**
+     * Writes rows as entries arrive, then the description table, then fills in the header.
+     */
+    private static final class SegmentWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        private final byte[] key;
+        private final BasicFileAttributes source;
+        private final Map<String, Integer> descriptionIds = new HashMap<>();
+        private final List<String> descriptions = new ArrayList<>();
+        private long entries;
+
+        private SegmentWriter(Path path, String key, BasicFileAttributes source) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.key = key.getBytes(StandardCharsets.UTF_8);
+            this.source = source;
+            channel.position(FIXED_HEADER_SIZE + this.key.length);
+        }
+
+        /**
+         * @return false if an entry cannot be stored in a segment
+         */
+        private boolean writeAll(LogEntrySpliterator spliterator) throws IOException {
+            boolean[] storable = {true};
+            while (storable[0] && spliterator.tryAdvance(entry -> storable[0] = writeRow(entry))) {
+                if (buffer.remaining() < ROW_SIZE) {
+                    flush();
+                }
+            }
+            if (!storable[0]) {
+                return false;
+            }
+            long descriptionsOffset = channel.position() + buffer.position();
+            putInt(descriptions.size());
+            for (String description : descriptions) {
+                putBytes(description.getBytes(StandardCharsets.UTF_8));
+            }
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE + key.length)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(source.size())
+                    .putLong(source.lastModifiedTime().toMillis())
+                    .putLong(entries)
+                    .putLong(descriptionsOffset)
+                    .putInt(key.length)
+                    .put(key)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(false);
+            return true;
+        }
+
+        private boolean writeRow(LogEntry entry) {
+            long second = TimeUnit.NANOSECONDS.toSeconds(entry.timeNanos());
+            if (TimeUnit.SECONDS.toNanos(second) != entry.timeNanos() || second < 0 || second > MAX_SECOND) {
+                return false;
+            }
+            Integer descriptionId = descriptionIds.get(entry.jobDescription());
+            if (descriptionId == null) {
+                descriptionId = descriptions.size();
+                descriptions.add(entry.jobDescription());
+                descriptionIds.put(entry.jobDescription(), descriptionId);
+            }
+            buffer.putInt((int) second << 1 | entry.status().ordinal())
+                    .putInt(entry.pid())
+                    .putInt(descriptionId);
+            entries++;
+            return true;
+        }
+
+        private void putInt(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        private void putBytes(byte[] bytes) throws IOException {
+            putInt(bytes.length);
+            for (int offset = 0; offset < bytes.length; ) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
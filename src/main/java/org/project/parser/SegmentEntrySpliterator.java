@@ -0,0 +1,143 @@
+package org.project.parser;
+
+import org.project.model.JobEntryStatus;
+import org.project.model.LogEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the entries of a segment written by {@link SegmentCache}, mapping the rows window by window.
+ */
+final class SegmentEntrySpliterator extends LogEntrySpliterator {
+    private static final int WINDOW_ROWS = (1 << 30) / SegmentCache.ROW_SIZE;
+    private static final JobEntryStatus[] STATUSES = JobEntryStatus.values();
+
+    private final FileChannel channel;
+    private final long rowsOffset;
+    private final long entries;
+    private final String[] descriptions;
+    private MappedByteBuffer window;
+    private long windowFirstRow;
+    private long nextRow;
+
+    private SegmentEntrySpliterator(Path logFilePath, FileChannel channel, long rowsOffset, long entries, String[] descriptions) {
+        super(logFilePath);
+        this.channel = channel;
+        this.rowsOffset = rowsOffset;
+        this.entries = entries;
+        this.descriptions = descriptions;
+    }
+
+    /**
+     * @return A spliterator over the segment, or null if there is no segment for the key and source attributes
+     */
+    static SegmentEntrySpliterator open(Path logFilePath, Path segmentPath, String key, BasicFileAttributes source,
+                                        JobDescriptionDictionary dictionary) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(segmentPath, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            SegmentEntrySpliterator spliterator = read(logFilePath, channel, key.getBytes(StandardCharsets.UTF_8), source, dictionary);
+            if (spliterator != null) {
+                return spliterator;
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        channel.close();
+        return null;
+    }
+
+    private static SegmentEntrySpliterator read(Path logFilePath, FileChannel channel, byte[] key, BasicFileAttributes source,
+                                                JobDescriptionDictionary dictionary) throws IOException {
+        long segmentSize = channel.size();
+        if (segmentSize < SegmentCache.FIXED_HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SegmentCache.FIXED_HEADER_SIZE);
+        if (header.getInt() != SegmentCache.MAGIC || header.getInt() != SegmentCache.VERSION
+                || header.getLong() != source.size() || header.getLong() != source.lastModifiedTime().toMillis()) {
+            return null;
+        }
+        long entries = header.getLong();
+        long descriptionsOffset = header.getLong();
+        int keyLength = header.getInt();
+        long rowsOffset = SegmentCache.FIXED_HEADER_SIZE + (long) keyLength;
+        if (keyLength != key.length || entries < 0 || descriptionsOffset != rowsOffset + entries * SegmentCache.ROW_SIZE
+                || descriptionsOffset + Integer.BYTES > segmentSize) {
+            return null;
+        }
+        ByteBuffer storedKey = channel.map(FileChannel.MapMode.READ_ONLY, SegmentCache.FIXED_HEADER_SIZE, keyLength);
+        if (!storedKey.equals(ByteBuffer.wrap(key))) {
+            return null;
+        }
+        String[] descriptions = readDescriptions(channel.map(FileChannel.MapMode.READ_ONLY, descriptionsOffset, segmentSize - descriptionsOffset), dictionary);
+        if (descriptions == null) {
+            return null;
+        }
+        return new SegmentEntrySpliterator(logFilePath, channel, rowsOffset, entries, descriptions);
+    }
+
+    /**
+     * @return The descriptions, or null if the table is truncated
+     */
+    private static String[] readDescriptions(ByteBuffer table, JobDescriptionDictionary dictionary) {
+        int count = table.getInt();
+        if (count < 0 || count > table.remaining() / Integer.BYTES) {
+            return null;
+        }
+        String[] descriptions = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (table.remaining() < Integer.BYTES) {
+                return null;
+            }
+            int length = table.getInt();
+            if (length < 0 || length > table.remaining()) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            table.get(bytes);
+            descriptions[i] = dictionary.intern(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return descriptions;
+    }
+
+    @Override
+    protected LogEntry nextEntry() throws IOException {
+        if (nextRow == entries) {
+            return null;
+        }
+        if (window == null || nextRow - windowFirstRow == WINDOW_ROWS) {
+            windowFirstRow = nextRow;
+            long rows = Math.min(WINDOW_ROWS, entries - nextRow);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, rowsOffset + nextRow * SegmentCache.ROW_SIZE, rows * SegmentCache.ROW_SIZE);
+        }
+        int timeAndStatus = window.getInt();
+        int pid = window.getInt();
+        int descriptionId = window.getInt();
+        nextRow++;
+        if (descriptionId < 0 || descriptionId >= descriptions.length) {
+            throw new IOException(String.format("Corrupt row %d in cached segment", nextRow));
+        }
+        return new LogEntry(TimeUnit.SECONDS.toNanos(timeAndStatus >>> 1), descriptions[descriptionId],
+                STATUSES[timeAndStatus & 1], pid);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
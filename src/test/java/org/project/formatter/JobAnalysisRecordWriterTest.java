@@ -0,0 +1,73 @@
+package org.project.formatter;
+
+import org.junit.jupiter.api.Test;
+import org.project.model.JobAnalysis;
+import org.project.model.JobAnalysisState;
+import org.project.model.JobEntryStatus;
+import org.project.model.JobExecution;
+import org.project.model.LogEntry;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobAnalysisRecordWriterTest {
+
+    private final JobExecution job = new JobExecution(
+        new LogEntry(LocalTime.of(23, 58, 30), "backup \"nightly\", 😀 é", JobEntryStatus.START, 7),
+        new LogEntry(LocalTime.of(0, 4, 30, 250_000_000), "backup \"nightly\", 😀 é", JobEntryStatus.END, 7).plusDays(1));
+
+    @Test
+    void when_jsonLines_expect_oneEscapedObjectPerResult() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JobAnalysisRecordWriter writer = new JobAnalysisRecordWriter(out, RecordFormat.JSON_LINES);
+
+        writer.accept(JobAnalysis.warning(job, "Exceeded warning threshold\n(5 min)"));
+        writer.accept(JobAnalysis.dangling(new LogEntry(LocalTime.of(11, 0), "job", JobEntryStatus.END, -3), "END without START"));
+        writer.accept(JobAnalysis.completed(job));
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+            {"state":"WARNING","pid":7,"description":"backup \\"nightly\\", 😀 é","start":"23:58:30","end":"00:04:30.25",\
+            "durationMillis":360250,"reason":"Exceeded warning threshold\\u000a(5 min)"}
+            {"state":"FAULTY","pid":-3,"description":"job","start":null,"end":"11:00:00","durationMillis":null,"reason":"END without START"}
+            {"state":"OK","pid":7,"description":"backup \\"nightly\\", 😀 é","start":"23:58:30","end":"00:04:30.25",\
+            "durationMillis":360250,"reason":null}
+            """);
+        assertThat(writer.records()).isEqualTo(3);
+    }
+
+    @Test
+    void when_csv_expect_headerAndQuotedFields() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JobAnalysisRecordWriter writer = new JobAnalysisRecordWriter(out, RecordFormat.CSV);
+
+        writer.accept(JobAnalysis.faulty(job, "Exceeded fault threshold (10 min)"));
+        writer.accept(JobAnalysis.overdue(job.startEntry(), JobAnalysisState.WARNING, "Still running"));
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+            state,pid,description,start,end,durationMillis,reason
+            FAULTY,7,"backup ""nightly"", 😀 é",23:58:30,00:04:30.25,360250,Exceeded fault threshold (10 min)
+            WARNING,7,"backup ""nightly"", 😀 é",23:58:30,,,Still running
+            """);
+    }
+
+    @Test
+    void when_recordsExceedBuffer_expect_allWritten() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JobAnalysisRecordWriter writer = new JobAnalysisRecordWriter(out, RecordFormat.CSV);
+        String reason = "é".repeat(50_000);
+
+        for (int i = 0; i < 10; i++) {
+            writer.accept(JobAnalysis.warning(job, reason));
+        }
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(11)
+            .allSatisfy(line -> assertThat(line).doesNotContain("?"))
+            .last().asString().endsWith("," + reason);
+    }
+}
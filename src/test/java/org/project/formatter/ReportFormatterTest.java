@@ -0,0 +1,62 @@
+package org.project.formatter;
+
+import org.junit.jupiter.api.Test;
+import org.project.model.JobAnalysis;
+import org.project.model.JobEntryStatus;
+import org.project.model.JobExecution;
+import org.project.model.JobSummary;
+import org.project.model.LogEntry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportFormatterTest {
+
+    private final ReportFormatter formatter = new ReportFormatter();
+
+    @Test
+    void when_writtenToStream_expect_sameReportAsString() throws IOException {
+        List<JobAnalysis> analyzedJobs = List.of(
+            JobAnalysis.warning(job(LocalTime.of(11, 0), LocalTime.of(11, 6), 1), "Exceeded warning threshold"),
+            JobAnalysis.completed(job(LocalTime.of(11, 1), LocalTime.of(11, 2), 2)),
+            JobAnalysis.dangling(new LogEntry(LocalTime.of(11, 3), "scheduled task é", JobEntryStatus.END, 3), "END without START"),
+            JobAnalysis.completed(job(LocalTime.of(11, 4), LocalTime.of(11, 5), 4)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        formatter.write(analyzedJobs, out);
+
+        String report = formatter.format(analyzedJobs);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(report);
+        assertThat(report)
+            .contains("   + 2 OK\n", "   + 1 WARNING\n", "A total of 3 jobs completed\n", " - END without START\n")
+            .containsSubsequence("OK jobs:", "START,2", "START,4", "WARNING jobs:", "START,1");
+    }
+
+    @Test
+    void when_summary_expect_totalsAndProblemsWithoutOkJobs() {
+        JobSummary summary = new JobSummary();
+        List.of(
+            JobAnalysis.warning(job(LocalTime.of(11, 0), LocalTime.of(11, 6), 1), "Exceeded warning threshold"),
+            JobAnalysis.completed(job(LocalTime.of(11, 1), LocalTime.of(11, 2), 2)),
+            JobAnalysis.dangling(new LogEntry(LocalTime.of(11, 3), "scheduled task é", JobEntryStatus.END, 3), "END without START"),
+            JobAnalysis.completed(job(LocalTime.of(11, 4), LocalTime.of(11, 5), 4))).forEach(summary);
+
+        String report = formatter.format(summary);
+
+        assertThat(summary.problems()).hasSize(2);
+        assertThat(report)
+            .contains("   + 2 OK\n", "   + 1 WARNING\n", "A total of 3 jobs completed\n", "scheduled task é: 3 runs", " - END without START\n")
+            .containsSubsequence("WARNING jobs:", "START,1")
+            .doesNotContain("OK jobs:", "START,2", "START,4");
+    }
+
+    private static JobExecution job(LocalTime start, LocalTime end, int pid) {
+        return new JobExecution(new LogEntry(start, "scheduled task é", JobEntryStatus.START, pid),
+            new LogEntry(end, "scheduled task é", JobEntryStatus.END, pid));
+    }
+}
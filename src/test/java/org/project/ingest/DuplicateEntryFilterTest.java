@@ -0,0 +1,65 @@
+package org.project.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.project.model.JobEntryStatus;
+import org.project.model.LogEntry;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateEntryFilterTest {
+
+    @Test
+    void when_entryRepeated_expect_onlyExactDuplicatesDropped() {
+        DuplicateEntryFilter filter = new DuplicateEntryFilter(1_000, 16);
+        LogEntry start = new LogEntry(LocalTime.of(11, 0), "job 1", JobEntryStatus.START, 100);
+
+        assertThat(filter.test(start)).isTrue();
+        assertThat(filter.test(new LogEntry(LocalTime.of(11, 0), "job 1", JobEntryStatus.START, 100))).isFalse();
+        assertThat(filter.test(new LogEntry(LocalTime.of(11, 0, 1), "job 1", JobEntryStatus.START, 100))).isTrue();
+        assertThat(filter.test(new LogEntry(LocalTime.of(11, 0), "job 2", JobEntryStatus.START, 100))).isTrue();
+        assertThat(filter.test(new LogEntry(LocalTime.of(11, 0), "job 1", JobEntryStatus.END, 100))).isTrue();
+        assertThat(filter.test(new LogEntry(LocalTime.of(11, 0), "job 1", JobEntryStatus.START, 101))).isTrue();
+        assertThat(filter.test(start.plusDays(1))).isTrue();
+        assertThat(filter.dropped()).isEqualTo(1);
+    }
+
+    @Test
+    void when_manyDistinctEntries_expect_allKeptAndRecentDuplicatesDropped() {
+        DuplicateEntryFilter filter = new DuplicateEntryFilter(200_000, 1_000);
+        List<LogEntry> entries = IntStream.range(0, 200_000)
+                .mapToObj(i -> new LogEntry(LocalTime.ofSecondOfDay(i % 86_400), "job " + i % 7, JobEntryStatus.START, i))
+                .toList();
+
+        // each entry repeated 500 entries later, as by two overlapping files merged by time
+        long kept = entries.stream()
+                .flatMap(entry -> {
+                    int index = entry.pid();
+                    return index < 500 ? Stream.of(entry) : Stream.of(entry, entries.get(index - 500));
+                })
+                .filter(filter)
+                .count();
+
+        assertThat(kept).isEqualTo(entries.size());
+        assertThat(filter.dropped()).isEqualTo(entries.size() - 500);
+        assertThat(filter.unconfirmed()).isZero();
+    }
+
+    @Test
+    void when_duplicateOlderThanWindow_expect_droppedUnconfirmed() {
+        DuplicateEntryFilter filter = new DuplicateEntryFilter(1_000, 4);
+        LogEntry first = new LogEntry(LocalTime.of(11, 0), "job", JobEntryStatus.START, 0);
+
+        assertThat(filter.test(first)).isTrue();
+        for (int pid = 1; pid <= 4; pid++) {
+            assertThat(filter.test(new LogEntry(LocalTime.of(11, 0), "job", JobEntryStatus.START, pid))).isTrue();
+        }
+
+        assertThat(filter.test(first)).isFalse();
+        assertThat(filter.unconfirmed()).isEqualTo(1);
+    }
+}
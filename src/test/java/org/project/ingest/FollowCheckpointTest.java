@@ -0,0 +1,131 @@
+package org.project.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.model.JobAnalysis;
+import org.project.model.JobAnalysisState;
+import org.project.model.JobEntryStatus;
+import org.project.model.LogEntry;
+import org.project.monitor.LogMonitor;
+import org.project.monitor.LogMonitorEngine;
+import org.project.parser.CsvLogParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FollowCheckpointTest {
+
+    @Test
+    void when_written_expect_sameOffsetsAndOpenJobsRead(@TempDir Path tempDir) throws IOException {
+        Path checkpointFile = tempDir.resolve("follow.checkpoint");
+        LogEntry first = new LogEntry(LocalTime.of(23, 0), "nightly backup", JobEntryStatus.START, 1);
+        LogEntry second = new LogEntry(LocalTime.of(1, 30), "scheduled task 032", JobEntryStatus.START, -2).plusDays(1);
+        LogEntry third = new LogEntry(LocalTime.of(2, 0), "nightly backup", JobEntryStatus.START, 3).plusDays(1);
+
+        new FollowCheckpoint(Map.of(Path.of("app.log"), new FollowCheckpoint.FilePosition(1234L, 56, first.timeNanos(), third.timeNanos())), List.of(first, second, third))
+                .write(checkpointFile);
+        FollowCheckpoint restored = FollowCheckpoint.read(checkpointFile);
+
+        assertThat(restored.offset(Path.of("app.log").toAbsolutePath())).isEqualTo(1234L);
+        assertThat(restored.lineNumber(Path.of("app.log"))).isEqualTo(56);
+        assertThat(restored.offset(tempDir.resolve("other.log"))).isZero();
+        assertThat(restored.dayRollover(Path.of("app.log")).latestNanos()).isEqualTo(third.timeNanos());
+        assertThat(restored.dayRollover(tempDir.resolve("other.log")).latestNanos()).isEqualTo(-1);
+        assertThat(restored.openStarts()).containsExactly(first, second, third);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(checkpointFile);
+        }
+    }
+
+    @Test
+    void when_notCheckpoint_expect_failure(@TempDir Path tempDir) throws IOException {
+        Path checkpointFile = tempDir.resolve("follow.checkpoint");
+        Files.writeString(checkpointFile, "11:00:00,job, START,1\n");
+
+        assertThatThrownBy(() -> FollowCheckpoint.read(checkpointFile)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void when_restartedFromCheckpoint_expect_onlyNewLinesReadAndOpenJobsMatched(@TempDir Path tempDir) throws IOException {
+        Path logFile = tempDir.resolve("app.log");
+        Path checkpointFile = tempDir.resolve("follow.checkpoint");
+        Files.writeString(logFile, """
+            11:00:00,job 1, START,100
+            11:01:00,job 2, START,200
+            11:02:00,job 2, END,200
+            """);
+        List<JobAnalysis> firstRun = followUntilCaughtUp(logFile, checkpointFile);
+        assertThat(firstRun).extracting(JobAnalysis::state).containsExactly(JobAnalysisState.OK);
+
+        Files.writeString(logFile, "11:12:00,job 1, END,100\n", StandardOpenOption.APPEND);
+        List<JobAnalysis> secondRun = followUntilCaughtUp(logFile, checkpointFile);
+
+        assertThat(secondRun).singleElement().satisfies(faulty -> {
+            assertThat(faulty.state()).isEqualTo(JobAnalysisState.FAULTY);
+            assertThat(faulty.jobExecution().pid()).isEqualTo(100);
+            assertThat(faulty.jobExecution().getFormattedDuration()).isEqualTo("12:00");
+        });
+        assertThat(FollowCheckpoint.read(checkpointFile).openStarts()).isEmpty();
+        assertThat(FollowCheckpoint.read(checkpointFile).offset(logFile)).isEqualTo(Files.size(logFile));
+        assertThat(FollowCheckpoint.read(checkpointFile).lineNumber(logFile)).isEqualTo(4);
+    }
+
+    @Test
+    void when_restartedAfterMidnight_expect_daysContinued(@TempDir Path tempDir) throws IOException {
+        Path logFile = tempDir.resolve("app.log");
+        Path checkpointFile = tempDir.resolve("follow.checkpoint");
+        Files.writeString(logFile, """
+            23:50:00,job 1, START,100
+            00:05:00,job 2, START,200
+            """);
+        assertThat(followUntilCaughtUp(logFile, checkpointFile)).isEmpty();
+
+        Files.writeString(logFile, "00:20:00,job 2, END,200\n", StandardOpenOption.APPEND);
+        List<JobAnalysis> secondRun = followUntilCaughtUp(logFile, checkpointFile);
+
+        long day = TimeUnit.DAYS.toNanos(1);
+        assertThat(secondRun).singleElement().satisfies(ok -> {
+            assertThat(ok.jobExecution().startEntry().timeNanos()).isEqualTo(day + TimeUnit.MINUTES.toNanos(5));
+            assertThat(ok.jobExecution().endEntry().timeNanos()).isEqualTo(day + TimeUnit.MINUTES.toNanos(20));
+        });
+        assertThat(FollowCheckpoint.read(checkpointFile).openStarts()).singleElement()
+                .extracting(LogEntry::timeNanos).isEqualTo(TimeUnit.MINUTES.toNanos(23 * 60 + 50));
+    }
+
+    /**
+     * Follows the file from the checkpoint until everything written so far is consumed, then checkpoints it again.
+     *
+     * @return The results reported while following, without the jobs left open
+     */
+    private static List<JobAnalysis> followUntilCaughtUp(Path logFile, Path checkpointFile) throws IOException {
+        FollowCheckpoint checkpoint = Files.exists(checkpointFile)
+                ? FollowCheckpoint.read(checkpointFile) : new FollowCheckpoint(Map.of(), List.of());
+        LogFileFollower follower = new LogFileFollower(new CsvLogParser(), List.of(logFile), checkpoint);
+        List<JobAnalysis> results = new ArrayList<>();
+        LogMonitorEngine engine = new LogMonitor().newEngine(results::add);
+        checkpoint.openStarts().forEach(engine::accept);
+        FollowCheckpointer checkpointer = new FollowCheckpointer(checkpointFile, Duration.ZERO, follower, engine);
+
+        // closing once caught up still reads what was written so far
+        try (Stream<LogEntry> entries = follower.stream(() -> {
+            checkpointer.run();
+            follower.close();
+        })) {
+            entries.forEachOrdered(engine::accept);
+        }
+        checkpointer.write();
+        return results;
+    }
+}
@@ -0,0 +1,58 @@
+package org.project.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.model.JobAnalysis;
+import org.project.model.JobAnalysisState;
+import org.project.model.LogEntry;
+import org.project.monitor.LogMonitor;
+import org.project.parser.CsvLogParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogFileFollowerTest {
+
+    @Test
+    @Timeout(30)
+    void when_jobEndsInFollowedFile_expect_reportedBeforeStreamEnds(@TempDir Path tempDir) throws Exception {
+        Path logFile = tempDir.resolve("app.log");
+        Files.writeString(logFile, "11:00:00,job 1, START,100\n");
+        BlockingQueue<JobAnalysis> results = new LinkedBlockingQueue<>();
+
+        LogFileFollower follower = new LogFileFollower(new CsvLogParser(), List.of(logFile), Duration.ofMillis(50));
+        Thread monitorThread = Thread.ofVirtual().start(() -> {
+            try (Stream<LogEntry> entries = follower.stream()) {
+                new LogMonitor().process(entries, results::add);
+            }
+        });
+
+        appendLine(logFile, "11:12:00,job 1, END,100");
+        JobAnalysis faulty = results.poll(10, TimeUnit.SECONDS);
+        assertThat(faulty).isNotNull();
+        assertThat(faulty.state()).isEqualTo(JobAnalysisState.FAULTY);
+        assertThat(faulty.jobExecution().pid()).isEqualTo(100);
+
+        appendLine(logFile, "11:13:00,job 2, START,200");
+        follower.close();
+        monitorThread.join();
+
+        assertThat(results).singleElement()
+            .satisfies(dangling -> assertThat(dangling.danglingEntry().pid()).isEqualTo(200));
+    }
+
+    private static void appendLine(Path logFile, String line) throws IOException {
+        Files.writeString(logFile, line + "\n", StandardOpenOption.APPEND);
+    }
+}
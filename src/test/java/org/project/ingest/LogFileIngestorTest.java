@@ -0,0 +1,196 @@
+package org.project.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.model.LogEntry;
+import org.project.parser.CsvLogParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogFileIngestorTest {
+
+    private final CsvLogParser parser = new CsvLogParser();
+
+    @Test
+    void when_filesReadConcurrently_expect_entriesInFileOrder(@TempDir Path tempDir) throws IOException {
+        List<Path> logFiles = new ArrayList<>();
+        for (int file = 0; file < 20; file++) {
+            StringBuilder content = new StringBuilder();
+            for (int line = 0; line < 50; line++) {
+                content.append(String.format("11:%02d:%02d,job %d, START,%d%n", file, line, file, file * 100 + line));
+            }
+            Path logFile = tempDir.resolve("app-" + file + ".log");
+            Files.writeString(logFile, content);
+            logFiles.add(logFile);
+        }
+
+        List<LogEntry> sequential;
+        try (Stream<LogEntry> entries = new LogFileIngestor(parser, 1).stream(logFiles)) {
+            sequential = entries.toList();
+        }
+        List<LogEntry> concurrent;
+        try (Stream<LogEntry> entries = new LogFileIngestor(parser, 3).stream(logFiles)) {
+            concurrent = entries.toList();
+        }
+
+        assertThat(sequential).hasSize(1000);
+        assertThat(concurrent).containsExactlyElementsOf(sequential);
+    }
+
+    @Test
+    void when_timeOrder_expect_entriesOfAllFilesMergedByTime(@TempDir Path tempDir) throws IOException {
+        Path first = tempDir.resolve("app-1.log");
+        Files.writeString(first, """
+            11:00:00,job a, START,1
+            11:05:00,job b, END,2
+            11:10:00,job a, END,1
+            """);
+        Path second = tempDir.resolve("app-2.log");
+        Files.writeString(second, """
+            11:02:00,job b, START,2
+            11:05:00,job c, START,3
+            11:20:00,job c, END,3
+            """);
+
+        List<Integer> pids;
+        try (Stream<LogEntry> entries = new LogFileIngestor(parser, 2, IngestOrder.TIME).stream(List.of(second, first))) {
+            pids = entries.map(entry -> entry.pid() * (entry.isStart() ? 1 : -1)).toList();
+        }
+
+        // entries logged at the same time come in the order of the files
+        assertThat(pids).containsExactly(1, 2, 3, -2, -1, -3);
+    }
+
+    @Test
+    void when_timeOrderWithDefaultLimit_expect_allFilesMerged(@TempDir Path tempDir) throws IOException {
+        Path first = tempDir.resolve("app-1.log");
+        Files.writeString(first, """
+            11:00:00,job a, START,1
+            11:05:00,job b, END,2
+            """);
+        Path second = tempDir.resolve("app-2.log");
+        Files.writeString(second, """
+            11:02:00,job b, START,2
+            11:10:00,job a, END,1
+            """);
+
+        List<Integer> pids;
+        try (Stream<LogEntry> entries = new LogFileIngestor(parser, IngestOrder.TIME).stream(List.of(second, first))) {
+            pids = entries.map(entry -> entry.pid() * (entry.isStart() ? 1 : -1)).toList();
+        }
+
+        assertThat(pids).containsExactly(1, 2, -2, -1);
+    }
+
+    @Test
+    void when_timeOrderAcrossMidnight_expect_laterFileOnNextDay(@TempDir Path tempDir) throws IOException {
+        Path first = tempDir.resolve("a.log");
+        Files.writeString(first, """
+            23:50:00,job a, START,1
+            23:59:00,job b, START,2
+            """);
+        Path second = tempDir.resolve("b.log");
+        Files.writeString(second, """
+            00:01:00,job b, END,2
+            00:02:00,job a, END,1
+            """);
+
+        List<Integer> pids;
+        try (Stream<LogEntry> entries = new LogFileIngestor(parser, 2, IngestOrder.TIME).stream(List.of(first, second))) {
+            pids = entries.map(entry -> entry.pid() * (entry.isStart() ? 1 : -1)).toList();
+        }
+
+        assertThat(pids).containsExactly(1, 2, -2, -1);
+    }
+
+    @Test
+    void when_timeOrderLimitedToOneOpenFile_expect_filesOneAfterAnother(@TempDir Path tempDir) throws IOException {
+        Path first = tempDir.resolve("app-1.log");
+        Files.writeString(first, """
+            11:00:00,job a, START,1
+            11:10:00,job a, END,1
+            """);
+        Path second = tempDir.resolve("app-2.log");
+        Files.writeString(second, """
+            11:02:00,job b, START,2
+            11:05:00,job b, END,2
+            """);
+
+        List<Integer> pids;
+        try (Stream<LogEntry> entries = new LogFileIngestor(parser, 1, IngestOrder.TIME).stream(List.of(first, second))) {
+            pids = entries.map(entry -> entry.pid() * (entry.isStart() ? 1 : -1)).toList();
+        }
+
+        assertThat(pids).containsExactly(1, -1, 2, -2);
+    }
+
+    @Test
+    void when_overlappingFilesDeduplicated_expect_eachEntryOnce(@TempDir Path tempDir) throws IOException {
+        Path rotated = tempDir.resolve("app.log.1");
+        Files.writeString(rotated, """
+            11:00:00,job a, START,1
+            11:01:00,job b, START,2
+            11:02:00,job a, END,1
+            """);
+        Path current = tempDir.resolve("app.log");
+        Files.writeString(current, """
+            11:01:00,job b, START,2
+            11:02:00,job a, END,1
+            11:03:00,job b, END,2
+            """);
+
+        List<LogEntry> deduplicated;
+        try (Stream<LogEntry> entries = new LogFileIngestor(parser, 2, IngestOrder.TIME, 1024).stream(List.of(rotated, current))) {
+            deduplicated = entries.toList();
+        }
+
+        assertThat(deduplicated).extracting(LogEntry::pid).containsExactly(1, 2, 1, 2);
+    }
+
+    @Test
+    void when_overlappingFilesAcrossMidnightDeduplicated_expect_eachEntryOnce(@TempDir Path tempDir) throws IOException {
+        Path rotated = tempDir.resolve("app.log.1");
+        Files.writeString(rotated, """
+            23:58:00,job a, START,1
+            00:01:00,job b, START,2
+            00:02:00,job a, END,1
+            """);
+        Path current = tempDir.resolve("app.log");
+        Files.writeString(current, """
+            00:01:00,job b, START,2
+            00:02:00,job a, END,1
+            00:03:00,job b, END,2
+            """);
+
+        List<LogEntry> kept;
+        try (Stream<LogEntry> entries = new LogFileIngestor(parser, 1, IngestOrder.FILE, 1024).stream(List.of(rotated, current))) {
+            kept = entries.toList();
+        }
+
+        assertThat(kept).extracting(entry -> entry.pid() * (entry.isStart() ? 1 : -1)).containsExactly(1, 2, -1, -2);
+        assertThat(kept.getLast().timeNanos()).isEqualTo(TimeUnit.DAYS.toNanos(1) + TimeUnit.MINUTES.toNanos(3));
+    }
+
+    @Test
+    void when_fileCannotBeRead_expect_failure(@TempDir Path tempDir) throws IOException {
+        Path logFile = tempDir.resolve("app.log");
+        Files.writeString(logFile, "11:00:00,job, START,1\n");
+        Path directory = Files.createDirectory(tempDir.resolve("not-a-file.log"));
+
+        assertThatThrownBy(() -> {
+            try (Stream<LogEntry> entries = new LogFileIngestor(parser, 2).stream(List.of(logFile, directory))) {
+                entries.forEach(entry -> { });
+            }
+        }).isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("not-a-file.log");
+    }
+}
@@ -0,0 +1,97 @@
+package org.project.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayRolloverTest {
+
+    private static final long DAY = LocalTime.MAX.toNanoOfDay() + 1;
+
+    @Test
+    void when_timesPassMidnight_expect_nextDays() {
+        DayRollover rollover = new DayRollover();
+
+        assertThat(rollover.resolve(nanos(22, 0))).isEqualTo(nanos(22, 0));
+        assertThat(rollover.resolve(nanos(23, 59))).isEqualTo(nanos(23, 59));
+        assertThat(rollover.resolve(nanos(0, 1))).isEqualTo(DAY + nanos(0, 1));
+        assertThat(rollover.resolve(nanos(11, 0))).isEqualTo(DAY + nanos(11, 0));
+        assertThat(rollover.resolve(nanos(22, 0))).isEqualTo(DAY + nanos(22, 0));
+        assertThat(rollover.resolve(nanos(3, 0))).isEqualTo(2 * DAY + nanos(3, 0));
+    }
+
+    @Test
+    void when_timesSlightlyOutOfOrder_expect_sameDay() {
+        DayRollover rollover = new DayRollover();
+
+        assertThat(rollover.resolve(nanos(23, 58))).isEqualTo(nanos(23, 58));
+        assertThat(rollover.resolve(nanos(0, 1))).isEqualTo(DAY + nanos(0, 1));
+        assertThat(rollover.resolve(nanos(23, 59))).isEqualTo(nanos(23, 59));
+        assertThat(rollover.resolve(nanos(0, 2))).isEqualTo(DAY + nanos(0, 2));
+        assertThat(rollover.resolve(nanos(0, 0))).isEqualTo(DAY + nanos(0, 0));
+    }
+
+    @Test
+    void when_timesJumpForwardMoreThanHalfADay_expect_neverBeforeFirstTime() {
+        DayRollover rollover = new DayRollover();
+
+        assertThat(rollover.resolve(nanos(0, 1))).isEqualTo(nanos(0, 1));
+        assertThat(rollover.resolve(nanos(23, 59))).isEqualTo(nanos(23, 59));
+    }
+
+    @Test
+    void when_timesJumpForwardMoreThanHalfADayFromFirst_expect_sameDay() {
+        DayRollover rollover = new DayRollover();
+
+        assertThat(rollover.resolve(nanos(1, 0))).isEqualTo(nanos(1, 0));
+        assertThat(rollover.resolve(nanos(14, 0))).isEqualTo(nanos(14, 0));
+        assertThat(rollover.resolve(nanos(23, 0))).isEqualTo(nanos(23, 0));
+        assertThat(rollover.resolve(nanos(2, 0))).isEqualTo(DAY + nanos(2, 0));
+    }
+
+    @Test
+    void when_resolvedTwiceOrFilesChained_expect_consecutiveDays() {
+        DayRollover first = new DayRollover();
+        DayRollover second = new DayRollover();
+        long[] times = {nanos(20, 0), nanos(4, 0), nanos(16, 0), nanos(2, 0)};
+        for (long time : times) {
+            long resolved = first.resolve(time);
+            assertThat(second.resolve(resolved)).isEqualTo(resolved);
+        }
+
+        // a second file starting again on its first day
+        assertThat(first.resolve(nanos(3, 0))).isEqualTo(2 * DAY + nanos(3, 0));
+    }
+
+    @Test
+    void when_continuedFromEarlierRollover_expect_sameDaysAsWithout() {
+        DayRollover earlier = new DayRollover();
+        earlier.resolve(nanos(23, 50));
+        earlier.resolve(nanos(0, 5));
+        DayRollover continued = new DayRollover(earlier.firstNanos(), earlier.latestNanos());
+
+        assertThat(continued.latestNanos()).isEqualTo(DAY + nanos(0, 5));
+        assertThat(continued.resolve(nanos(23, 59))).isEqualTo(earlier.resolve(nanos(23, 59)));
+        assertThat(continued.resolve(nanos(0, 20))).isEqualTo(DAY + nanos(0, 20));
+        assertThat(new DayRollover().latestNanos()).isEqualTo(-1);
+    }
+
+    @Test
+    void when_entryOnSameDay_expect_sameInstance() {
+        DayRollover rollover = new DayRollover();
+        LogEntry evening = new LogEntry(LocalTime.of(23, 0), "job", JobEntryStatus.START, 1);
+        LogEntry morning = new LogEntry(LocalTime.of(1, 0), "job", JobEntryStatus.END, 1);
+
+        assertThat(rollover.resolve(evening)).isSameAs(evening);
+        LogEntry nextDay = rollover.resolve(morning);
+        assertThat(nextDay.timeNanos()).isEqualTo(DAY + nanos(1, 0));
+        assertThat(nextDay.timestamp()).isEqualTo(LocalTime.of(1, 0));
+        assertThat(new JobExecution(evening, nextDay).duration().toHours()).isEqualTo(2);
+    }
+
+    private static long nanos(int hour, int minute) {
+        return LocalTime.of(hour, minute).toNanoOfDay();
+    }
+}
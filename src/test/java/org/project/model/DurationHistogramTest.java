@@ -0,0 +1,72 @@
+package org.project.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DurationHistogramTest {
+
+    @Test
+    void when_manyDurationsRecorded_expect_percentilesWithin3Percent() {
+        DurationHistogram histogram = new DurationHistogram();
+        Random random = new Random(42);
+        long[] millis = new long[100_000];
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] = (long) Math.exp(random.nextDouble() * 20);
+            histogram.record(Duration.ofMillis(millis[i]));
+        }
+        Arrays.sort(millis);
+
+        for (double percentile : new double[]{1, 50, 90, 95, 99, 99.9, 100}) {
+            long exact = millis[(int) Math.ceil(percentile / 100 * millis.length) - 1];
+            long estimate = histogram.percentile(percentile).toMillis();
+            assertThat(estimate).isBetween(exact, exact + Math.max(1, exact / 32));
+        }
+        assertThat(histogram.count()).isEqualTo(millis.length);
+        assertThat(histogram.max()).isEqualTo(Duration.ofMillis(millis[millis.length - 1]));
+    }
+
+    @Test
+    void when_histogramsMerged_expect_sameAsRecordedInOne() {
+        DurationHistogram all = new DurationHistogram();
+        DurationHistogram first = new DurationHistogram();
+        DurationHistogram second = new DurationHistogram();
+        for (int seconds = 0; seconds < 1_000; seconds++) {
+            Duration duration = Duration.ofSeconds(seconds * seconds);
+            all.record(duration);
+            (seconds % 3 == 0 ? first : second).record(duration);
+        }
+
+        first.merge(second);
+
+        assertThat(first.count()).isEqualTo(all.count());
+        assertThat(first.max()).isEqualTo(all.max());
+        for (int percentile = 0; percentile <= 100; percentile += 5) {
+            assertThat(first.percentile(percentile)).isEqualTo(all.percentile(percentile));
+        }
+    }
+
+    @Test
+    void when_bucketsComputed_expect_contiguousAndBounded() {
+        for (long millis = 0; millis < 1 << 20; millis++) {
+            int index = DurationHistogram.bucketIndex(millis);
+            assertThat(DurationHistogram.highestInBucket(index)).isGreaterThanOrEqualTo(millis);
+            assertThat(DurationHistogram.bucketIndex(DurationHistogram.highestInBucket(index))).isEqualTo(index);
+        }
+        assertThat(DurationHistogram.bucketIndex(Long.MAX_VALUE)).isLessThan(2_000);
+    }
+
+    @Test
+    void when_emptyOrInvalid_expect_zeroOrException() {
+        DurationHistogram histogram = new DurationHistogram();
+
+        assertThat(histogram.percentile(99)).isEqualTo(Duration.ZERO);
+        assertThatThrownBy(() -> histogram.record(Duration.ofSeconds(-1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> histogram.percentile(101)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
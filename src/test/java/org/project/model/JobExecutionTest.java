@@ -121,5 +121,13 @@ class JobExecutionTest {
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("endEntry cannot be null");
     }
-}
 
+    @Test
+    void when_printed_expect_durationAsInBaselineReport() {
+        LogEntry startEntry = new LogEntry(LocalTime.of(11, 0, 0), "test job", JobEntryStatus.START, 123);
+        LogEntry endEntry = new LogEntry(LocalTime.of(11, 10, 7), "test job", JobEntryStatus.END, 123);
+
+        assertThat(new JobExecution(startEntry, endEntry))
+            .hasToString("JobExecution[startEntry=11:00,test job,START,123, endEntry=11:10:07,test job,END,123, duration=PT10M7S]");
+    }
+}
@@ -0,0 +1,103 @@
+package org.project.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobTimelineTest {
+
+    @Test
+    void when_jobsOverlap_expect_peakAndCountsPerWindow() {
+        List<JobAnalysis> analyzedJobs = List.of(
+            job(LocalTime.of(11, 0, 0), LocalTime.of(11, 10, 0)),
+            job(LocalTime.of(11, 5, 0), LocalTime.of(11, 6, 30)),
+            job(LocalTime.of(11, 6, 30), LocalTime.of(11, 7, 0)),
+            job(LocalTime.of(11, 6, 0), LocalTime.of(11, 8, 0)),
+            JobAnalysis.dangling(new LogEntry(LocalTime.of(11, 6, 0), "job", JobEntryStatus.START, 9), "no end"));
+
+        JobTimeline timeline = JobTimeline.of(analyzedJobs, 300);
+
+        assertThat(timeline.jobs()).isEqualTo(4);
+        assertThat(timeline.peakConcurrency()).isEqualTo(3);
+        assertThat(timeline.peakTime()).isEqualTo(LocalTime.of(11, 6, 0));
+        assertThat(timeline.minutes()).isEqualTo(11);
+        assertThat(timeline.minuteStart(0)).isEqualTo(LocalTime.of(11, 0));
+        assertThat(timeline.concurrency(0)).isEqualTo(1);
+        assertThat(timeline.concurrency(6)).isEqualTo(3);
+        assertThat(timeline.concurrency(8)).isEqualTo(1);
+        assertThat(timeline.windows()).isEqualTo(3);
+        assertThat(timeline.windowStart(1)).isEqualTo(LocalTime.of(11, 5));
+        assertThat(timeline.starts(0)).isEqualTo(1);
+        assertThat(timeline.starts(1)).isEqualTo(3);
+        assertThat(timeline.ends(1)).isEqualTo(3);
+        assertThat(timeline.ends(2)).isEqualTo(1);
+    }
+
+    @Test
+    void when_randomJobs_expect_sameAsCountingEverySecond() {
+        Random random = new Random(42);
+        List<JobAnalysis> analyzedJobs = new ArrayList<>();
+        int[] running = new int[24 * 3600];
+        for (int i = 0; i < 2_000; i++) {
+            int start = 70_000 + random.nextInt(10_000);
+            int duration = random.nextInt(3_600);
+            analyzedJobs.add(job(LocalTime.ofSecondOfDay(start), LocalTime.ofSecondOfDay(start + duration)));
+            for (int second = start; second < start + duration; second++) {
+                running[second]++;
+            }
+        }
+
+        JobTimeline timeline = JobTimeline.of(analyzedJobs, 60);
+
+        int peak = 0;
+        for (int second = 0; second < running.length; second++) {
+            peak = Math.max(peak, running[second]);
+        }
+        assertThat(timeline.peakConcurrency()).isEqualTo(peak);
+        int firstMinute = timeline.minuteStart(0).toSecondOfDay() / 60;
+        for (int minute = 0; minute < timeline.minutes(); minute++) {
+            int expected = 0;
+            for (int second = (firstMinute + minute) * 60; second < (firstMinute + minute + 1) * 60; second++) {
+                expected = Math.max(expected, running[second]);
+            }
+            assertThat(timeline.concurrency(minute)).as("minute %d", minute).isEqualTo(expected);
+        }
+        int starts = 0;
+        for (int window = 0; window < timeline.windows(); window++) {
+            starts += timeline.starts(window);
+        }
+        assertThat(starts).isEqualTo(2_000);
+    }
+
+    @Test
+    void when_jobCrossesMidnight_expect_countedUntilItsEnd() {
+        JobTimeline timeline = JobTimeline.of(List.of(
+            job(LocalTime.of(23, 58), LocalTime.of(0, 3)),
+            job(LocalTime.of(23, 59, 30), LocalTime.of(0, 1))), 60);
+
+        assertThat(timeline.minutes()).isEqualTo(6);
+        assertThat(timeline.peakTime()).isEqualTo(LocalTime.of(23, 59, 30));
+        assertThat(timeline.minuteStart(2)).isEqualTo(LocalTime.MIDNIGHT);
+        assertThat(timeline.concurrency(2)).isEqualTo(2);
+        assertThat(timeline.concurrency(3)).isEqualTo(1);
+        assertThat(timeline.ends(5)).isEqualTo(1);
+    }
+
+    @Test
+    void when_noJobsOrInvalidWindow_expect_emptyTimelineOrException() {
+        assertThat(JobTimeline.of(List.of(), 60).peakConcurrency()).isZero();
+        assertThatThrownBy(() -> new JobTimeline.Builder().build(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static JobAnalysis job(LocalTime start, LocalTime end) {
+        return JobAnalysis.completed(new JobExecution(
+            new LogEntry(start, "job", JobEntryStatus.START, 1),
+            new LogEntry(end, "job", JobEntryStatus.END, 1)));
+    }
+}
@@ -0,0 +1,53 @@
+package org.project.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogEntryStoreTest {
+
+    @Test
+    void when_entriesAdded_expect_sameEntriesReturned() {
+        LogEntryStore store = new LogEntryStore(1);
+        LogEntry start = new LogEntry(LocalTime.of(11, 35, 23), "scheduled task 032", JobEntryStatus.START, 37980);
+        LogEntry end = new LogEntry(LocalTime.of(23, 59, 59), "scheduled task 032", JobEntryStatus.END, 37980);
+        LogEntry other = new LogEntry(LocalTime.MIDNIGHT, "background job wmy", JobEntryStatus.START, -1).plusDays(1);
+
+        store.add(start);
+        store.add(end);
+        store.add(other);
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.asList()).containsExactly(start, end, other);
+        assertThat(store.second(1)).isEqualTo(86399);
+        assertThat(store.second(2)).isEqualTo(86400);
+        assertThat(store.status(1)).isEqualTo(JobEntryStatus.END);
+        assertThat(store.pid(2)).isEqualTo(-1);
+        assertThat(store.descriptionId(0)).isEqualTo(store.descriptionId(1));
+        assertThat(store.description(store.descriptionId(2))).isEqualTo("background job wmy");
+    }
+
+    @Test
+    void when_timestampNotWholeSecondTimeOfDay_expect_rejected() {
+        LogEntryStore store = new LogEntryStore();
+
+        assertThatThrownBy(() -> store.add(new LogEntry(LocalTime.of(11, 35, 23, 500), "job", JobEntryStatus.START, 1)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.add(new LogEntry(LocalDateTime.of(2024, 1, 1, 11, 35), "job", JobEntryStatus.START, 1)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void when_indexOutOfRange_expect_exception() {
+        LogEntryStore store = new LogEntryStore();
+        store.add(0, "job", JobEntryStatus.START, 1);
+
+        assertThatThrownBy(() -> store.pid(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> store.entry(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
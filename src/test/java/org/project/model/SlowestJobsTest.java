@@ -0,0 +1,50 @@
+package org.project.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlowestJobsTest {
+
+    @Test
+    void when_manyJobs_expect_slowestOverallAndPerTypeAsBySorting() {
+        SlowestJobs slowestJobs = new SlowestJobs(5);
+        List<JobAnalysis> analyzedJobs = new ArrayList<>();
+        Random random = new Random(7);
+        for (int pid = 0; pid < 10_000; pid++) {
+            JobAnalysis analysis = JobAnalysis.completed(job("job " + pid % 3, pid, random.nextInt(86_400)));
+            analyzedJobs.add(analysis);
+            slowestJobs.accept(analysis);
+        }
+        slowestJobs.accept(JobAnalysis.dangling(new LogEntry(LocalTime.NOON, "job 0", JobEntryStatus.END, -1), "no start"));
+
+        Comparator<JobAnalysis> slowestFirst = Comparator.comparingLong((JobAnalysis analysis) -> analysis.jobExecution().durationNanos()).reversed();
+        assertThat(slowestJobs.slowest()).extracting(analysis -> analysis.jobExecution().durationNanos())
+            .containsExactlyElementsOf(analyzedJobs.stream().sorted(slowestFirst).limit(5)
+                .map(analysis -> analysis.jobExecution().durationNanos()).toList());
+        assertThat(slowestJobs.slowestByType()).containsOnlyKeys("job 0", "job 1", "job 2");
+        assertThat(slowestJobs.slowestByType().get("job 1")).extracting(analysis -> analysis.jobExecution().durationNanos())
+            .containsExactlyElementsOf(analyzedJobs.stream().filter(analysis -> analysis.jobExecution().jobDescription().equals("job 1"))
+                .sorted(slowestFirst).limit(5).map(analysis -> analysis.jobExecution().durationNanos()).toList());
+        assertThat(slowestJobs.counts().jobs()).isEqualTo(10_000);
+        assertThat(slowestJobs.counts().jobs(JobAnalysisState.OK)).isEqualTo(10_000);
+        assertThat(slowestJobs.counts().danglingEntries()).isEqualTo(1);
+    }
+
+    @Test
+    void when_limitNotPositive_expect_rejected() {
+        assertThatThrownBy(() -> new SlowestJobs(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static JobExecution job(String jobDescription, int pid, int durationSeconds) {
+        return new JobExecution(new LogEntry(LocalTime.MIDNIGHT, jobDescription, JobEntryStatus.START, pid),
+            new LogEntry(LocalTime.ofSecondOfDay(durationSeconds), jobDescription, JobEntryStatus.END, pid));
+    }
+}
@@ -0,0 +1,63 @@
+package org.project.monitor;
+
+import org.junit.jupiter.api.Test;
+import org.project.model.JobAnalysis;
+import org.project.model.JobAnalysisState;
+import org.project.model.JobEntryStatus;
+import org.project.model.JobExecution;
+import org.project.model.LogEntry;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveThresholdsTest {
+
+    private final AdaptiveThresholds thresholds = new AdaptiveThresholds(95, 99, 20);
+
+    @Test
+    void when_jobTypesHaveDifferentRuntimes_expect_eachJudgedAgainstItsOwnBaseline() {
+        for (int i = 0; i < 100; i++) {
+            thresholds.categorize(job("scheduled task 032", 10 + i % 10));
+            thresholds.categorize(job("background job wmy", 600 + i % 60));
+        }
+
+        assertThat(thresholds.categorize(job("scheduled task 032", 15)).state()).isEqualTo(JobAnalysisState.OK);
+        assertThat(thresholds.categorize(job("scheduled task 032", 120)).state()).isEqualTo(JobAnalysisState.FAULTY);
+        assertThat(thresholds.categorize(job("background job wmy", 630)).state()).isEqualTo(JobAnalysisState.OK);
+        JobAnalysis slow = thresholds.categorize(job("background job wmy", 1_200));
+        assertThat(slow.state()).isEqualTo(JobAnalysisState.FAULTY);
+        assertThat(slow.reason()).startsWith("Exceeded p99 (").contains("of 101 earlier runs with duration 20:00");
+    }
+
+    @Test
+    void when_durationBetweenPercentiles_expect_warning() {
+        for (int seconds = 1; seconds <= 100; seconds++) {
+            thresholds.categorize(job("job", seconds));
+        }
+
+        assertThat(thresholds.categorize(job("job", 97)).state()).isEqualTo(JobAnalysisState.WARNING);
+    }
+
+    @Test
+    void when_baselineTooSmall_expect_noCategorization() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(thresholds.categorize(job("new job", 10))).isNull();
+        }
+
+        assertThat(thresholds.categorize(job("new job", 10_000))).isNotNull();
+    }
+
+    @Test
+    void when_percentilesInvalid_expect_exception() {
+        assertThatThrownBy(() -> new AdaptiveThresholds(99, 95, 20)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveThresholds(95, 100, 20)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static JobExecution job(String description, int seconds) {
+        LocalTime start = LocalTime.of(1, 0);
+        return new JobExecution(new LogEntry(start, description, JobEntryStatus.START, 1),
+                new LogEntry(start.plusSeconds(seconds), description, JobEntryStatus.END, 1));
+    }
+}
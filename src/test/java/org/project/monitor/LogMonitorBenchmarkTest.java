@@ -0,0 +1,205 @@
+package org.project.monitor;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.project.model.JobAnalysis;
+import org.project.model.JobEntryStatus;
+import org.project.model.LogEntry;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allocation and throughput of the open-job tables in the matching loop,
+ * run with: mvn test -Dbenchmark=true -Dtest=LogMonitorBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LogMonitorBenchmarkTest {
+    private static final int JOBS = 2_000_000;
+    private static final int CONCURRENT_JOBS = 100_000;
+    private static final int ROUNDS = 5;
+
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void when_matchingWithPidTable_expect_noAllocationPerEntry() {
+        for (boolean randomPids : new boolean[]{false, true}) {
+            LogEntry[] entries = entries(randomPids);
+
+            Result heap = measure(entries, OpenJobs.onHeap());
+            Result offHeap = measure(entries, new OffHeapOpenJobs());
+            Result hashMap = measure(entries, new HashMapOpenJobs());
+
+            System.out.printf("%s pids%n  HashMap: %s%n  PidTable: %s%n  off-heap: %s%n",
+                    randomPids ? "random" : "sequential", hashMap, heap, offHeap);
+            assertThat(heap.matched()).isEqualTo(hashMap.matched()).isEqualTo(offHeap.matched()).isEqualTo(JOBS);
+            assertThat(heap.bytesPerEntry()).isLessThan(1);
+            assertThat(hashMap.bytesPerEntry()).isGreaterThan(heap.bytesPerEntry());
+        }
+    }
+
+    @Test
+    void when_analyzingWithPidTable_expect_engineThroughputKept() {
+        LogEntry[] entries = entries(true);
+        LogMonitor monitor = new LogMonitor();
+
+        double hashMap = measureEngine(entries, () -> new LogMonitorEngine(monitor, analysis -> { }, new HashMapOpenJobs()));
+        double heap = measureEngine(entries, () -> new LogMonitorEngine(monitor, analysis -> { }, OpenJobs.onHeap()));
+        double watched = measureEngine(entries, () -> monitor.newEngine(analysis -> { }, analysis -> { }));
+
+        System.out.printf("engine with HashMap: %,.0f entries/s, with PidTable: %,.0f entries/s, watching overdue jobs: %,.0f entries/s%n",
+                hashMap, heap, watched);
+    }
+
+    @Test
+    void when_matchingInShards_expect_sameResultsAsSequential() {
+        List<LogEntry> entries = List.of(entries(true));
+        LogMonitor monitor = new LogMonitor();
+        int shards = Math.max(2, Runtime.getRuntime().availableProcessors());
+        PidShardedMatcher matcher = new PidShardedMatcher(monitor, shards);
+
+        List<JobAnalysis> sequential = monitor.process(entries.stream());
+        List<JobAnalysis> sharded = matcher.matchInOrder(entries);
+        double sequentialRate = measureBatch(entries, () -> monitor.process(entries.stream()));
+        double shardedRate = measureBatch(entries, () -> matcher.matchInOrder(entries));
+
+        System.out.printf("sequential: %,.0f entries/s, %d shards: %,.0f entries/s%n", sequentialRate, shards, shardedRate);
+        assertThat(sharded).containsExactlyElementsOf(sequential);
+    }
+
+    private static double measureBatch(List<LogEntry> entries, Supplier<List<JobAnalysis>> batch) {
+        double best = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            batch.get();
+            best = Math.max(best, entries.size() * 1e9 / (System.nanoTime() - start));
+        }
+        return best;
+    }
+
+    private static double measureEngine(LogEntry[] entries, Supplier<LogMonitorEngine> engines) {
+        double best = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            LogMonitorEngine engine = engines.get();
+            long start = System.nanoTime();
+            for (LogEntry entry : entries) {
+                engine.accept(entry);
+            }
+            engine.flush();
+            best = Math.max(best, entries.length * 1e9 / (System.nanoTime() - start));
+        }
+        return best;
+    }
+
+    /**
+     * @return START and END entries of {@link #JOBS} jobs, with up to {@link #CONCURRENT_JOBS} open at a time
+     */
+    private static LogEntry[] entries(boolean randomPids) {
+        int[] pids = new int[JOBS];
+        Random random = new Random(42);
+        Set<Integer> used = new HashSet<>();
+        for (int job = 0; job < JOBS; job++) {
+            int pid = job * 31;
+            while (randomPids && !used.add(pid = random.nextInt())) {
+                // pick distinct pids
+            }
+            pids[job] = pid;
+        }
+        LogEntry[] entries = new LogEntry[JOBS * 2];
+        int next = 0;
+        for (int job = 0; job < JOBS + CONCURRENT_JOBS; job++) {
+            if (job < JOBS) {
+                entries[next] = new LogEntry(timestamp(next), "job " + job % 100, JobEntryStatus.START, pids[job]);
+                next++;
+            }
+            int ending = job - CONCURRENT_JOBS;
+            if (ending >= 0) {
+                entries[next] = new LogEntry(timestamp(next), "job " + ending % 100, JobEntryStatus.END, pids[ending]);
+                next++;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return One entry logged per millisecond, so jobs run for about 200 seconds, within the default thresholds
+     */
+    private static LocalTime timestamp(int entry) {
+        return LocalTime.ofNanoOfDay(entry * TimeUnit.MILLISECONDS.toNanos(1) % TimeUnit.DAYS.toNanos(1));
+    }
+
+    private Result measure(LogEntry[] entries, OpenJobs openJobs) {
+        Result best = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            int matched = 0;
+            for (LogEntry entry : entries) {
+                if (entry.isStart()) {
+                    openJobs.put(entry);
+                } else if (openJobs.remove(entry.pid()) != null) {
+                    matched++;
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            Result result = new Result(matched, (double) allocated / entries.length, entries.length * 1e9 / nanos);
+            if (best == null || result.entriesPerSecond() > best.entriesPerSecond()) {
+                best = result;
+            }
+        }
+        return best;
+    }
+
+    private record Result(int matched, double bytesPerEntry, double entriesPerSecond) {
+        @Override
+        public String toString() {
+            return String.format("%,.0f entries/s, %.1f bytes allocated per entry", entriesPerSecond, bytesPerEntry);
+        }
+    }
+
+    /**
+     * The map the engine used before the pid table, as a baseline.
+     */
+    private static final class HashMapOpenJobs implements OpenJobs {
+        private final Map<Integer, LogEntry> pidToStartEntry = new HashMap<>();
+
+        @Override
+        public LogEntry put(LogEntry start) {
+            return pidToStartEntry.put(start.pid(), start);
+        }
+
+        @Override
+        public LogEntry remove(int pid) {
+            return pidToStartEntry.remove(pid);
+        }
+
+        @Override
+        public int size() {
+            return pidToStartEntry.size();
+        }
+
+        @Override
+        public void forEachInStartOrder(Consumer<? super LogEntry> action) {
+            pidToStartEntry.values().forEach(action);
+        }
+
+        @Override
+        public void drainInStartOrder(Consumer<? super LogEntry> action) {
+            pidToStartEntry.values().forEach(action);
+            pidToStartEntry.clear();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.project.model.JobAnalysisState;
 import org.project.model.JobEntryStatus;
 import org.project.model.JobExecution;
 import org.project.model.LogEntry;
+import org.project.model.LogEntryStore;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalTime;
@@ -235,6 +236,127 @@ class LogMonitorTest {
         assertThat(getFaultyJobs(analyzedJobs)).hasSize(1);
     }
 
+    @Test
+    void when_entriesStreamed_expect_sameAnalysisAsList() {
+        List<LogEntry> entries = new ArrayList<>();
+        entries.add(new LogEntry(LocalTime.of(11, 0, 0), "job 1", JobEntryStatus.START, 100));
+        entries.add(new LogEntry(LocalTime.of(11, 1, 0), "job 2", JobEntryStatus.START, 200));
+        entries.add(new LogEntry(LocalTime.of(11, 2, 0), "job 1", JobEntryStatus.END, 100));
+        entries.add(new LogEntry(LocalTime.of(11, 3, 0), "job 2", JobEntryStatus.START, 200));
+        entries.add(new LogEntry(LocalTime.of(11, 10, 0), "job 2", JobEntryStatus.END, 200));
+        entries.add(new LogEntry(LocalTime.of(11, 11, 0), "job 3", JobEntryStatus.END, 300));
+        entries.add(new LogEntry(LocalTime.of(11, 12, 0), "job 4", JobEntryStatus.START, 400));
+
+        List<JobAnalysis> streamed = monitor.process(entries.stream());
+
+        assertThat(streamed).containsExactlyInAnyOrderElementsOf(monitor.process(entries));
+        assertThat(getOkJobs(streamed)).hasSize(1);
+        assertThat(getWarningJobs(streamed)).hasSize(1);
+        assertThat(getIssues(streamed)).hasSize(3);
+    }
+
+    @Test
+    void when_entriesStored_expect_sameAnalysisAsList() {
+        List<LogEntry> entries = new ArrayList<>();
+        entries.add(new LogEntry(LocalTime.of(11, 0, 0), "job 1", JobEntryStatus.START, 100));
+        entries.add(new LogEntry(LocalTime.of(11, 1, 0), "job 2", JobEntryStatus.START, 200));
+        entries.add(new LogEntry(LocalTime.of(11, 2, 0), "job 1", JobEntryStatus.END, 100));
+        entries.add(new LogEntry(LocalTime.of(11, 3, 0), "job 2", JobEntryStatus.START, 200));
+        entries.add(new LogEntry(LocalTime.of(11, 15, 0), "job 2", JobEntryStatus.END, 200));
+        entries.add(new LogEntry(LocalTime.of(11, 11, 0), "job 3", JobEntryStatus.END, 300));
+        entries.add(new LogEntry(LocalTime.of(11, 12, 0), "job 4", JobEntryStatus.START, 400));
+        entries.add(new LogEntry(LocalTime.of(11, 13, 0), "job 5", JobEntryStatus.START, 500));
+        LogEntryStore store = new LogEntryStore(2);
+        entries.forEach(store::add);
+
+        List<JobAnalysis> analyzedJobs = monitor.process(store);
+
+        assertThat(analyzedJobs).containsExactlyElementsOf(monitor.process(entries));
+        assertThat(getOkJobs(analyzedJobs)).hasSize(1);
+        assertThat(getFaultyJobs(analyzedJobs)).hasSize(1);
+        assertThat(getIssues(analyzedJobs)).hasSize(4);
+    }
+
+    @Test
+    void when_entriesAcceptedByEngine_expect_resultsAsSoonAsKnown() {
+        List<JobAnalysis> results = new ArrayList<>();
+        LogMonitorEngine engine = monitor.newEngine(results::add);
+
+        engine.accept(new LogEntry(LocalTime.of(11, 0, 0), "job 1", JobEntryStatus.START, 100));
+        engine.accept(new LogEntry(LocalTime.of(11, 1, 0), "job 2", JobEntryStatus.START, 200));
+        assertThat(results).isEmpty();
+        assertThat(engine.openJobs()).isEqualTo(2);
+
+        engine.accept(new LogEntry(LocalTime.of(11, 12, 0), "job 1", JobEntryStatus.END, 100));
+        assertThat(getFaultyJobs(results)).hasSize(1);
+
+        engine.accept(new LogEntry(LocalTime.of(11, 13, 0), "job 3", JobEntryStatus.END, 300));
+        assertThat(getIssues(results)).hasSize(1);
+
+        engine.flush();
+        assertThat(getIssues(results)).hasSize(2);
+        assertThat(results.get(2).danglingEntry().pid()).isEqualTo(200);
+        assertThat(engine.openJobs()).isZero();
+    }
+
+    @Test
+    void when_openJobPassesThresholds_expect_overdueBeforeEnd() {
+        List<JobAnalysis> results = new ArrayList<>();
+        List<JobAnalysis> overdue = new ArrayList<>();
+        LogMonitorEngine engine = monitor.newEngine(results::add, overdue::add);
+
+        engine.accept(new LogEntry(LocalTime.of(11, 0, 0), "hung job", JobEntryStatus.START, 100));
+        engine.accept(new LogEntry(LocalTime.of(11, 5, 0), "job 2", JobEntryStatus.START, 200));
+        assertThat(overdue).isEmpty();
+
+        engine.accept(new LogEntry(LocalTime.of(11, 5, 1), "job 2", JobEntryStatus.END, 200));
+        assertThat(overdue).hasSize(1);
+        assertThat(overdue.get(0).state()).isEqualTo(JobAnalysisState.WARNING);
+        assertThat(overdue.get(0).danglingEntry().pid()).isEqualTo(100);
+        assertThat(overdue.get(0).reason()).contains("warning threshold (5 min)");
+
+        engine.accept(new LogEntry(LocalTime.of(11, 30, 0), "job 3", JobEntryStatus.START, 300));
+        assertThat(overdue).hasSize(2);
+        assertThat(overdue.get(1).state()).isEqualTo(JobAnalysisState.FAULTY);
+        assertThat(overdue.get(1).danglingEntry().pid()).isEqualTo(100);
+
+        engine.accept(new LogEntry(LocalTime.of(12, 0, 0), "hung job", JobEntryStatus.END, 100));
+        assertThat(overdue).hasSize(4).extracting(analysis -> analysis.danglingEntry().pid()).containsExactly(100, 100, 300, 300);
+        assertThat(getFaultyJobs(results)).hasSize(1);
+    }
+
+    @Test
+    void when_jobEndsBeforeThreshold_expect_noOverdue() {
+        List<JobAnalysis> overdue = new ArrayList<>();
+        LogMonitorEngine engine = monitor.newEngine(analysis -> { }, overdue::add);
+
+        engine.accept(new LogEntry(LocalTime.of(23, 58, 0), "job 1", JobEntryStatus.START, 100));
+        engine.accept(new LogEntry(LocalTime.of(0, 3, 0), "job 1", JobEntryStatus.END, 100));
+        engine.accept(new LogEntry(LocalTime.of(0, 2, 0), "job 2", JobEntryStatus.START, 200));
+        engine.accept(new LogEntry(LocalTime.of(0, 7, 0), "job 3", JobEntryStatus.START, 300));
+        assertThat(overdue).isEmpty();
+
+        // midnight crossed: job 2 started 5 minutes and 1 second ago
+        engine.accept(new LogEntry(LocalTime.of(0, 7, 1), "job 3", JobEntryStatus.END, 300));
+        assertThat(overdue).hasSize(1);
+        assertThat(overdue.get(0).danglingEntry().pid()).isEqualTo(200);
+
+        engine.flush();
+        assertThat(overdue).hasSize(1);
+    }
+
+    @Test
+    void when_endStreamedBeforeStart_expect_issues() {
+        List<LogEntry> entries = List.of(
+            new LogEntry(LocalTime.of(11, 5, 0), "test job", JobEntryStatus.END, 123),
+            new LogEntry(LocalTime.of(11, 6, 0), "test job", JobEntryStatus.START, 123));
+
+        List<JobAnalysis> analyzedJobs = monitor.process(entries.stream());
+
+        assertThat(getCompletedJobs(analyzedJobs)).isZero();
+        assertThat(getIssues(analyzedJobs)).hasSize(2);
+    }
+
     private List<JobExecution> getOkJobs(List<JobAnalysis> analyzedJobs) {
         return analyzedJobs.stream()
             .filter(JobAnalysis::hasJobExecution)
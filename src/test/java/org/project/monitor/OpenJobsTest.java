@@ -0,0 +1,68 @@
+package org.project.monitor;
+
+import org.junit.jupiter.api.Test;
+import org.project.model.JobEntryStatus;
+import org.project.model.LogEntry;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenJobsTest {
+
+    @Test
+    void when_randomStartsAndEnds_expect_sameAsHashMap() {
+        assertSameAsHashMap(OpenJobs::onHeap);
+        assertSameAsHashMap(OffHeapOpenJobs::new);
+    }
+
+    private static void assertSameAsHashMap(Supplier<OpenJobs> factory) {
+        OpenJobs openJobs = factory.get();
+        Map<Integer, LogEntry> expected = new HashMap<>();
+        Map<Integer, LogEntry> expectedInStartOrder = new LinkedHashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // a narrow pid range makes long probe sequences and many removals within them
+            int pid = random.nextInt(5_000) * (random.nextBoolean() ? 1 : -7919);
+            if (random.nextInt(3) == 0) {
+                assertThat(openJobs.remove(pid)).isEqualTo(expected.remove(pid));
+                expectedInStartOrder.remove(pid);
+            } else {
+                LogEntry start = new LogEntry(LocalTime.ofSecondOfDay(i % 86_400), "job " + pid % 10, JobEntryStatus.START, pid);
+                assertThat(openJobs.put(start)).isEqualTo(expected.put(pid, start));
+                expectedInStartOrder.remove(pid);
+                expectedInStartOrder.put(pid, start);
+            }
+            assertThat(openJobs.size()).isEqualTo(expected.size());
+        }
+
+        List<LogEntry> kept = new ArrayList<>();
+        openJobs.forEachInStartOrder(kept::add);
+        assertThat(openJobs.size()).isEqualTo(expected.size());
+
+        List<LogEntry> drained = new ArrayList<>();
+        openJobs.drainInStartOrder(drained::add);
+
+        assertThat(drained).isEqualTo(new ArrayList<>(expectedInStartOrder.values()));
+        assertThat(kept).isEqualTo(drained);
+        assertThat(openJobs.size()).isZero();
+        assertThat(openJobs.remove(drained.get(0).pid())).isNull();
+    }
+
+    @Test
+    void when_timestampNotTimeOfDay_expect_rejectedOffHeap() {
+        OpenJobs openJobs = new OffHeapOpenJobs();
+
+        assertThatThrownBy(() -> openJobs.put(new LogEntry(LocalDateTime.of(2024, 1, 1, 11, 0), "job", JobEntryStatus.START, 1)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,61 @@
+package org.project.monitor;
+
+import org.junit.jupiter.api.Test;
+import org.project.model.JobAnalysis;
+import org.project.model.JobEntryStatus;
+import org.project.model.LogEntry;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PidShardedMatcherTest {
+
+    private final LogMonitor monitor = new LogMonitor();
+
+    @Test
+    void when_matchedInShards_expect_sameResultsInSameOrderAsSequential() {
+        List<LogEntry> entries = randomEntries();
+        List<JobAnalysis> startsFirst = monitor.process(entries);
+        List<JobAnalysis> inOrder = new ArrayList<>();
+        monitor.process(entries.stream(), inOrder::add);
+
+        for (int shards = 1; shards <= 5; shards++) {
+            PidShardedMatcher matcher = new PidShardedMatcher(monitor, shards);
+            assertThat(matcher.matchStartsFirst(entries)).containsExactlyElementsOf(startsFirst);
+            assertThat(matcher.matchInOrder(entries)).containsExactlyElementsOf(inOrder);
+        }
+    }
+
+    @Test
+    void when_entriesNotRandomAccess_expect_sameResults() {
+        List<LogEntry> entries = List.of(
+            new LogEntry(LocalTime.of(11, 0, 0), "job 1", JobEntryStatus.START, 100),
+            new LogEntry(LocalTime.of(11, 1, 0), "job 2", JobEntryStatus.START, 200),
+            new LogEntry(LocalTime.of(11, 12, 0), "job 1", JobEntryStatus.END, 100),
+            new LogEntry(LocalTime.of(11, 13, 0), "job 3", JobEntryStatus.END, 300));
+
+        List<JobAnalysis> analyzedJobs = new PidShardedMatcher(monitor, 3).matchStartsFirst(new LinkedList<>(entries));
+
+        assertThat(analyzedJobs).containsExactlyElementsOf(monitor.process(entries));
+        assertThat(analyzedJobs).hasSize(3);
+    }
+
+    /**
+     * @return Entries of overlapping jobs with duplicate STARTs, ENDs without START and jobs that never end
+     */
+    private static List<LogEntry> randomEntries() {
+        Random random = new Random(42);
+        List<LogEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int pid = random.nextInt(2_000) * (random.nextBoolean() ? 1 : -31);
+            JobEntryStatus status = random.nextInt(5) < 2 ? JobEntryStatus.END : JobEntryStatus.START;
+            entries.add(new LogEntry(LocalTime.ofSecondOfDay(random.nextInt(86_400)), "job " + pid % 7, status, pid));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,128 @@
+package org.project.monitor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ThresholdRulesTest {
+
+    private static final JobThresholds DEFAULTS = new JobThresholds(Duration.ofMinutes(5), Duration.ofMinutes(10));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void when_rulesMatch_expect_firstMatchingRuleWins() throws IOException {
+        ThresholdRules rules = load(
+            "# kind:pattern,warning minutes,fault minutes",
+            "prefix:scheduled task 0,1,2",
+            "",
+            "glob:scheduled task ???,3,6",
+            "regex:background job [a-z]+,20,40",
+            "glob:*job*,30,60",
+            "prefix:scheduled task,7,8");
+
+        assertThat(rules.size()).isEqualTo(5);
+        assertThat(rules.thresholdsFor("scheduled task 032")).isEqualTo(minutes(1, 2));
+        assertThat(rules.thresholdsFor("scheduled task 796")).isEqualTo(minutes(3, 6));
+        assertThat(rules.thresholdsFor("scheduled task 7960")).isEqualTo(minutes(7, 8));
+        assertThat(rules.thresholdsFor("background job wmy")).isEqualTo(minutes(20, 40));
+        assertThat(rules.thresholdsFor("background job 42")).isEqualTo(minutes(30, 60));
+        assertThat(rules.thresholdsFor("report")).isSameAs(DEFAULTS);
+    }
+
+    @Test
+    void when_prefixHasWildcardCharacters_expect_takenLiterally() throws IOException {
+        ThresholdRules rules = load("prefix:task *,1,2", "glob:a*b*c,3,4");
+
+        assertThat(rules.thresholdsFor("task *1")).isEqualTo(minutes(1, 2));
+        assertThat(rules.thresholdsFor("task 1")).isSameAs(DEFAULTS);
+        assertThat(rules.thresholdsFor("abc")).isEqualTo(minutes(3, 4));
+        assertThat(rules.thresholdsFor("a-b-b-c")).isEqualTo(minutes(3, 4));
+        assertThat(rules.thresholdsFor("a-b-c-d")).isSameAs(DEFAULTS);
+    }
+
+    @Test
+    void when_manyRules_expect_sameAsMatchingEachRule() throws IOException {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>();
+        List<Pattern> naive = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String pattern = randomPattern(random);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    String prefix = pattern.replace("*", "").replace("?", "");
+                    lines.add("prefix:" + prefix + "," + i + "," + (i + 1));
+                    naive.add(Pattern.compile(Pattern.quote(prefix) + ".*"));
+                }
+                case 1 -> {
+                    lines.add("glob:" + pattern + "," + i + "," + (i + 1));
+                    naive.add(Pattern.compile(pattern.replace("?", ".").replace("*", ".*")));
+                }
+                default -> {
+                    String regex = pattern.replace("?", "[a-c]").replace("*", "[a-c]*");
+                    lines.add("regex:" + regex + "," + i + "," + (i + 1));
+                    naive.add(Pattern.compile(regex));
+                }
+            }
+        }
+        ThresholdRules rules = load(lines.toArray(String[]::new));
+
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int length = random.nextInt(8); length > 0; length--) {
+                description.append((char) ('a' + random.nextInt(3)));
+            }
+            JobThresholds expected = DEFAULTS;
+            for (int rule = 0; rule < naive.size(); rule++) {
+                if (naive.get(rule).matcher(description).matches()) {
+                    expected = minutes(rule, rule + 1);
+                    break;
+                }
+            }
+            assertThat(rules.thresholdsFor(description.toString())).as(description.toString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void when_ruleInvalid_expect_exceptionWithLineNumber() throws IOException {
+        assertThatThrownBy(() -> load("prefix:a,1,2", "suffix:b,1,2"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("line 2").hasMessageContaining("unknown kind 'suffix'");
+        assertThatThrownBy(() -> load("glob:a,1"))
+            .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("line 1");
+        assertThatThrownBy(() -> load("regex:(a,1,2"))
+            .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("line 1");
+        assertThatThrownBy(() -> load("glob:a,one,2"))
+            .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("whole minutes");
+    }
+
+    private ThresholdRules load(String... lines) throws IOException {
+        Path rulesFile = Files.write(tempDir.resolve("rules.txt"), List.of(lines));
+        return ThresholdRules.load(rulesFile, DEFAULTS);
+    }
+
+    private static String randomPattern(Random random) {
+        StringBuilder pattern = new StringBuilder();
+        for (int length = 1 + random.nextInt(5); length > 0; length--) {
+            int token = random.nextInt(8);
+            pattern.append(token == 0 ? '*' : token == 1 ? '?' : (char) ('a' + random.nextInt(3)));
+        }
+        return pattern.toString();
+    }
+
+    private static JobThresholds minutes(long warning, long fault) {
+        return new JobThresholds(Duration.ofMinutes(warning), Duration.ofMinutes(fault));
+    }
+}
@@ -0,0 +1,73 @@
+package org.project.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+
+    @Test
+    void when_advancedInRandomSteps_expect_timersExpireAtTheirDeadline() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(0);
+        Map<Integer, TimingWheel.Timer<Integer>> pending = new HashMap<>();
+        Random random = new Random(42);
+        int nextValue = 0;
+        for (int step = 0; step < 20_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 5) {
+                // deadlines from the next tick up to several levels ahead
+                long deadline = wheel.currentTick() + 1 + (long) (Math.pow(random.nextDouble(), 4) * 300_000);
+                pending.put(nextValue, wheel.schedule(deadline, nextValue));
+                nextValue++;
+            } else if (action < 7 && !pending.isEmpty()) {
+                TimingWheel.Timer<Integer> timer = pending.remove(pending.keySet().iterator().next());
+                wheel.cancel(timer);
+                assertThat(timer.isPending()).isFalse();
+            } else {
+                long target = wheel.currentTick() + random.nextInt(random.nextBoolean() ? 100 : 5_000);
+                List<Long> expired = new ArrayList<>();
+                long before = wheel.currentTick();
+                wheel.advanceTo(target, timer -> {
+                    assertThat(timer.deadlineTick()).isEqualTo(wheel.currentTick());
+                    assertThat(pending.remove(timer.value())).isSameAs(timer);
+                    expired.add(timer.deadlineTick());
+                });
+                assertThat(expired).isSorted().allMatch(deadline -> deadline > before && deadline <= target);
+                assertThat(pending.values()).allMatch(timer -> timer.deadlineTick() > target);
+            }
+            assertThat(wheel.size()).isEqualTo(pending.size());
+        }
+    }
+
+    @Test
+    void when_timerRescheduledOnExpiry_expect_expiresAgainLater() {
+        TimingWheel<String> wheel = new TimingWheel<>(100);
+        wheel.schedule(5_000, "job");
+        List<Long> expiries = new ArrayList<>();
+
+        wheel.advanceTo(1_000_000, timer -> {
+            expiries.add(wheel.currentTick());
+            if (expiries.size() == 1) {
+                wheel.reschedule(timer, 70_000);
+            }
+        });
+
+        assertThat(expiries).containsExactly(5_000L, 70_000L);
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.currentTick()).isEqualTo(1_000_000);
+    }
+
+    @Test
+    void when_deadlineNotAfterCurrentTick_expect_exception() {
+        TimingWheel<String> wheel = new TimingWheel<>(10);
+
+        assertThatThrownBy(() -> wheel.schedule(10, "job")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
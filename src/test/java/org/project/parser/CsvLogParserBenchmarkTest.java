@@ -0,0 +1,96 @@
+package org.project.parser;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.model.LogEntry;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput comparison of the parse modes, run with: mvn test -Dbenchmark=true -Dtest=CsvLogParserBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CsvLogParserBenchmarkTest {
+    private static final int LINES = 2_000_000;
+    private static final int ROUNDS = 5;
+
+    private final Logger projectLogger = (Logger) LoggerFactory.getLogger("org.project");
+    private Level previousLevel;
+
+    @BeforeEach
+    void quietLogging() {
+        previousLevel = projectLogger.getLevel();
+        projectLogger.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    void restoreLogging() {
+        projectLogger.setLevel(previousLevel);
+    }
+
+    @Test
+    void when_parsingLargeFile_expect_mappedModeFaster(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = writeLogFile(tempDir.resolve("large.log"), LINES);
+
+        CsvLogParser readerParser = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.READER);
+        CsvLogParser mappedParser = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.MAPPED);
+
+        double readerLinesPerSecond = measure(readerParser, logFile);
+        double mappedLinesPerSecond = measure(mappedParser, logFile);
+
+        System.out.printf("reader: %,.0f lines/s, mapped: %,.0f lines/s, speedup %.2fx%n",
+                readerLinesPerSecond, mappedLinesPerSecond, mappedLinesPerSecond / readerLinesPerSecond);
+        assertThat(mappedParser.parse(logFile)).isEqualTo(readerParser.parse(logFile));
+    }
+
+    @Test
+    void when_parsingLargeFileInChunks_expect_throughputScalingWithParallelism(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = writeLogFile(tempDir.resolve("large.log"), LINES);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        double sequentialLinesPerSecond = measure(new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.MAPPED, 1), logFile);
+        System.out.printf("parallelism 1: %,.0f lines/s%n", sequentialLinesPerSecond);
+        for (int parallelism = 2; parallelism <= cores; parallelism *= 2) {
+            double linesPerSecond = measure(new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.MAPPED, parallelism), logFile);
+            System.out.printf("parallelism %d: %,.0f lines/s, speedup %.2fx%n",
+                    parallelism, linesPerSecond, linesPerSecond / sequentialLinesPerSecond);
+        }
+    }
+
+    private static double measure(CsvLogParser parser, Path logFile) throws ParseException {
+        parser.parse(logFile);
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            List<LogEntry> entries = parser.parse(logFile);
+            best = Math.min(best, System.nanoTime() - start);
+            assertThat(entries).hasSize(LINES);
+        }
+        return LINES / (best / 1e9);
+    }
+
+    static Path writeLogFile(Path logFile, int lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(logFile)) {
+            for (int i = 0; i < lines; i++) {
+                int pid = 10_000 + i / 2;
+                int secondOfDay = (i / 2) % 86_400;
+                writer.write(String.format("%02d:%02d:%02d,scheduled task %03d, %s,%d%n",
+                        secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60,
+                        pid % 1000, i % 2 == 0 ? "START" : "END", pid));
+            }
+        }
+        return logFile;
+    }
+}
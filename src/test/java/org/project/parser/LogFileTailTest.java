@@ -0,0 +1,90 @@
+package org.project.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.model.LogEntry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogFileTailTest {
+
+    private final CsvLogParser parser = new CsvLogParser();
+
+    @Test
+    void when_linesAppended_expect_onlyNewCompleteLinesRead(@TempDir Path tempDir) throws IOException {
+        Path logFile = tempDir.resolve("app.log");
+        Files.writeString(logFile, "11:00:00,job 1, START,100\n11:00:05,job 2, ST");
+        List<LogEntry> entries = new ArrayList<>();
+
+        try (LogFileTail tail = new LogFileTail(parser, logFile)) {
+            assertThat(tail.poll(entries::add)).isEqualTo(1);
+            assertThat(tail.offset()).isEqualTo(26);
+            assertThat(tail.poll(entries::add)).isZero();
+
+            Files.writeString(logFile, "ART,200\n11:01:00,job 1, END,100\n", StandardOpenOption.APPEND);
+            assertThat(tail.poll(entries::add)).isEqualTo(2);
+            assertThat(tail.offset()).isEqualTo(Files.size(logFile));
+        }
+
+        assertThat(entries).extracting(LogEntry::pid).containsExactly(100, 200, 100);
+    }
+
+    @Test
+    void when_fileTruncated_expect_readFromStart(@TempDir Path tempDir) throws IOException {
+        Path logFile = tempDir.resolve("app.log");
+        Files.writeString(logFile, "11:00:00,job 1, START,100\n11:01:00,job 1, END,100\n");
+        List<LogEntry> entries = new ArrayList<>();
+
+        try (LogFileTail tail = new LogFileTail(parser, logFile)) {
+            tail.poll(entries::add);
+            Files.writeString(logFile, "12:00:00,job 3, START,300\n", StandardOpenOption.TRUNCATE_EXISTING);
+            tail.poll(entries::add);
+        }
+
+        assertThat(entries).extracting(LogEntry::pid).containsExactly(100, 100, 300);
+    }
+
+    @Test
+    void when_fileRotated_expect_oldFileDrainedThenNewFileRead(@TempDir Path tempDir) throws IOException {
+        Path logFile = tempDir.resolve("app.log");
+        Files.writeString(logFile, "11:00:00,job 1, START,100\n");
+        List<LogEntry> entries = new ArrayList<>();
+
+        try (LogFileTail tail = new LogFileTail(parser, logFile)) {
+            tail.poll(entries::add);
+            Files.writeString(logFile, "11:01:00,job 1, END,100", StandardOpenOption.APPEND);
+            Files.move(logFile, tempDir.resolve("app.log.1"));
+            Files.writeString(logFile, "12:00:00,job 3, START,300\n");
+            tail.poll(entries::add);
+        }
+
+        assertThat(entries).extracting(LogEntry::pid).containsExactly(100, 100, 300);
+    }
+
+    @Test
+    void when_resumedFromOffset_expect_earlierLinesSkippedAndLinesCountedOn(@TempDir Path tempDir) throws IOException {
+        Path logFile = tempDir.resolve("app.log");
+        Files.writeString(logFile, "11:00:00,job 1, START,100\n11:01:00,job 1, END,100\ninvalid line\n");
+        Path quarantineFile = tempDir.resolve("rejected.tsv");
+        RejectedLines rejectedLines = new RejectedLines(quarantineFile);
+        CsvLogParser quarantiningParser = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.READER, 1, null, rejectedLines);
+        List<LogEntry> entries = new ArrayList<>();
+
+        try (LogFileTail tail = new LogFileTail(quarantiningParser, logFile, 26, 1)) {
+            tail.poll(entries::add);
+            assertThat(tail.lineNumber()).isEqualTo(3);
+        }
+        rejectedLines.close();
+
+        assertThat(entries).extracting(LogEntry::pid).containsExactly(100);
+        assertThat(entries.getFirst().isEnd()).isTrue();
+        assertThat(Files.readAllLines(quarantineFile)).containsExactly(logFile + "\t3\tFIELD_COUNT\tinvalid line");
+    }
+}
@@ -1,15 +1,27 @@
 package org.project.parser;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import org.project.model.JobEntryStatus;
+import org.project.model.JobExecution;
 import org.project.model.LogEntry;
+import org.project.model.LogEntryStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -153,6 +165,286 @@ class LogParserTest {
         assertThat(parser.parse(logFile)).hasSize(2);
     }
 
+    @Test
+    void when_mappedMode_expect_sameEntriesAsReaderMode(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        String content = "11:35:23,scheduled task 032, START,37980\r\n"
+            + "11:35:56,scheduled task 032, end ,37980\r"
+            + "\n"
+            + "   \n"
+            + " 24:00:00,midnight job,START,+42\n"
+            + "11:36:11,scheduled task 796, START,abc\n"
+            + "11:36:11,t\u00e2che planifi\u00e9e, START,57672\n"
+            + "1:02:03,short time, START,1\n"
+            + "11:36:18,,END,-2147483648\n"
+            + "11:36:18,overflow,END,2147483648\n"
+            + "11:36:18,too,many,fields,1\n"
+            + "11:36:18,trailing,END,57672,,\n"
+            + "23:59:59,last line without terminator, START,1";
+        Files.writeString(logFile, content);
+
+        List<LogEntry> readerEntries = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.READER).parse(logFile);
+        List<LogEntry> mappedEntries = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.MAPPED).parse(logFile);
+        List<LogEntry> smallWindowEntries = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.MAPPED, 1, 64).parse(logFile);
+
+        assertThat(readerEntries).hasSize(7);
+        assertThat(mappedEntries).containsExactlyElementsOf(readerEntries);
+        assertThat(smallWindowEntries).containsExactlyElementsOf(readerEntries);
+    }
+
+    @Test
+    void when_mappedModeWithCustomDelimiter_expect_sameEntriesAsReaderMode(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        String content = """
+            11:35:23;scheduled task 032; START;37980
+            invalid line
+            11:35:56;scheduled task 032; END;37980
+            """;
+        Files.writeString(logFile, content);
+
+        List<LogEntry> readerEntries = new CsvLogParser(";", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.READER).parse(logFile);
+        List<LogEntry> mappedEntries = new CsvLogParser(";", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.MAPPED).parse(logFile);
+
+        assertThat(readerEntries).hasSize(2);
+        assertThat(mappedEntries).containsExactlyElementsOf(readerEntries);
+    }
+
+    @Test
+    void when_logSpansSeveralDays_expect_timesCountingUpPastMidnight(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        String content = """
+            23:59:50,nightly backup, START,1
+            00:00:10,scheduled task 032, START,2
+            23:59:59,scheduled task 796, START,3
+            11:00:00,scheduled task 032, END,2
+            23:00:00,scheduled task 796, END,3
+            00:00:05,nightly backup, END,1
+            """;
+        Files.writeString(logFile, content);
+
+        List<LogEntry> entries = parser.parse(logFile);
+
+        long day = LocalTime.MAX.toNanoOfDay() + 1;
+        assertThat(entries).extracting(LogEntry::timeNanos).containsExactly(
+            LocalTime.of(23, 59, 50).toNanoOfDay(),
+            day + LocalTime.of(0, 0, 10).toNanoOfDay(),
+            LocalTime.of(23, 59, 59).toNanoOfDay(),
+            day + LocalTime.of(11, 0).toNanoOfDay(),
+            day + LocalTime.of(23, 0).toNanoOfDay(),
+            2 * day + LocalTime.of(0, 0, 5).toNanoOfDay());
+        assertThat(entries.get(5).timestamp()).isEqualTo(LocalTime.of(0, 0, 5));
+        assertThat(new JobExecution(entries.get(0), entries.get(5)).getFormattedDuration()).isEqualTo("1440:15");
+    }
+
+    @Test
+    void when_logJumpsForwardMoreThanHalfADay_expect_storedOnFirstDay(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        String content = """
+            01:00:00,long job, START,1
+            14:00:00,scheduled task 032, START,2
+            23:00:00,scheduled task 032, END,2
+            02:00:00,long job, END,1
+            """;
+        Files.writeString(logFile, content);
+        LogEntryStore store = new LogEntryStore();
+
+        parser.parse(logFile, store);
+
+        long day = LocalTime.MAX.toNanoOfDay() + 1;
+        assertThat(store.size()).isEqualTo(4);
+        assertThat(store.entry(1).timeNanos()).isEqualTo(LocalTime.of(14, 0).toNanoOfDay());
+        assertThat(new JobExecution(store.entry(0), store.entry(3)).duration().toHours()).isEqualTo(25);
+        assertThat(store.entry(3).timeNanos()).isEqualTo(day + LocalTime.of(2, 0).toNanoOfDay());
+    }
+
+    @Test
+    void when_parallelChunkedMode_expect_sameEntriesAndLineNumbersAsReaderMode(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            if (i % 50 == 7) {
+                content.append("invalid line ").append(i).append('\n');
+            } else if (i % 50 == 21) {
+                content.append("\r\n");
+            } else {
+                content.append(String.format("11:%02d:%02d,job %d, %s,%d%n", i / 60 % 60, i % 60, i, i % 2 == 0 ? "START" : "END", i));
+            }
+        }
+        Files.writeString(logFile, content);
+
+        Logger parserLogger = (Logger) LoggerFactory.getLogger(RejectedLines.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        parserLogger.addAppender(appender);
+        try {
+            List<LogEntry> readerEntries = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.READER).parse(logFile);
+            List<String> readerWarnings = warnings(appender);
+            appender.list.clear();
+            List<LogEntry> chunkedEntries = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.MAPPED, 4, 128).parse(logFile);
+            List<String> chunkedWarnings = warnings(appender);
+
+            assertThat(readerEntries).hasSize(480);
+            assertThat(chunkedEntries).containsExactlyElementsOf(readerEntries);
+            assertThat(readerWarnings).hasSize(10).first().asString().startsWith("Failed to parse line 8:");
+            assertThat(chunkedWarnings).containsExactlyInAnyOrderElementsOf(readerWarnings);
+        } finally {
+            parserLogger.detachAppender(appender);
+        }
+    }
+
+    private static List<String> warnings(ListAppender<ILoggingEvent> appender) {
+        return appender.list.stream()
+            .filter(event -> event.getLevel() == Level.WARN)
+            .map(ILoggingEvent::getFormattedMessage)
+            .toList();
+    }
+
+    @Test
+    void when_streamingLogFile_expect_sameEntriesAsParse(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        String content = """
+            11:35:23,scheduled task 032, START,37980
+            invalid line
+            11:35:56,scheduled task 032, END,37980
+            """;
+        Files.writeString(logFile, content);
+
+        List<LogEntry> streamed;
+        try (Stream<LogEntry> entries = parser.stream(logFile)) {
+            streamed = entries.toList();
+        }
+        List<LogEntry> sunk = new ArrayList<>();
+        parser.parse(logFile, sunk::add);
+
+        assertThat(streamed).hasSize(2).containsExactlyElementsOf(parser.parse(logFile));
+        assertThat(sunk).containsExactlyElementsOf(streamed);
+    }
+
+    @Test
+    void when_descriptionRepeats_expect_sharedInstance(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        String content = """
+            11:35:23,scheduled task 032, START,37980
+            11:35:30,scheduled täsk 033, START,37981
+            11:35:56,  scheduled task 032 , END,37980
+            11:36:01,scheduled täsk 033, END,37981
+            """;
+        Files.writeString(logFile, content);
+
+        for (ParseMode mode : ParseMode.values()) {
+            CsvLogParser modeParser = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, mode);
+            List<LogEntry> entries = modeParser.parse(logFile);
+            List<LogEntry> reparsed = modeParser.parse(logFile);
+
+            assertThat(entries).hasSize(4);
+            assertThat(entries.get(2).jobDescription()).isSameAs(entries.get(0).jobDescription());
+            assertThat(entries.get(3).jobDescription()).isSameAs(entries.get(1).jobDescription());
+            assertThat(reparsed.get(0).jobDescription()).isSameAs(entries.get(0).jobDescription());
+            assertThat(modeParser.descriptionDictionary().size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void when_dictionaryFull_expect_newDescriptionsNotShared() {
+        JobDescriptionDictionary dictionary = new JobDescriptionDictionary(1);
+        String first = dictionary.intern(new String("job 1"));
+
+        assertThat(dictionary.intern(new String("job 1"))).isSameAs(first);
+        assertThat(dictionary.intern("job 2")).isEqualTo("job 2");
+        assertThat(dictionary.size()).isEqualTo(1);
+    }
+
+    @Test
+    void when_multiMemberGzipFile_expect_sameEntriesAsPlainFile(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        Path gzipFile = tempDir.resolve("test.log.gz");
+        StringBuilder content = new StringBuilder();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        for (int member = 0; member < 20; member++) {
+            StringBuilder memberContent = new StringBuilder();
+            for (int i = 0; i < 100; i++) {
+                int line = member * 100 + i;
+                memberContent.append(line % 97 == 3 ? "invalid line" : String.format("11:%02d:%02d,job %d, %s,%d",
+                    line / 60 % 60, line % 60, line, line % 2 == 0 ? "START" : "END", line));
+                // members split in the middle of a line must be joined back
+                if (i < 99 || member % 3 != 0) {
+                    memberContent.append('\n');
+                }
+            }
+            content.append(memberContent);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(memberContent.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        Files.writeString(logFile, content);
+        Files.write(gzipFile, compressed.toByteArray());
+
+        List<LogEntry> plainEntries = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.READER).parse(logFile);
+
+        assertThat(plainEntries).hasSizeGreaterThan(1900);
+        for (ParseMode mode : ParseMode.values()) {
+            assertThat(new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, mode, 1).parse(gzipFile))
+                .containsExactlyElementsOf(plainEntries);
+            assertThat(new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, mode, 4).parse(gzipFile))
+                .containsExactlyElementsOf(plainEntries);
+        }
+    }
+
+    @Test
+    void when_singleMemberGzipFileInflatedWithParallelism_expect_sameEntriesAsPlainFile(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        Path gzipFile = tempDir.resolve("test.log.gz");
+        StringBuilder content = new StringBuilder();
+        for (int line = 0; line < 5_000; line++) {
+            content.append(String.format("11:%02d:%02d,job %d, %s,%d%n", line / 60 % 60, line % 60, line, line % 2 == 0 ? "START" : "END", line));
+        }
+        Files.writeString(logFile, content);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(Files.newOutputStream(gzipFile))) {
+            gzip.write(content.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<LogEntry> plainEntries = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.READER).parse(logFile);
+
+        assertThat(new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.MAPPED, 4).parse(gzipFile))
+            .containsExactlyElementsOf(plainEntries);
+    }
+
+    @Test
+    void when_corruptGzipFile_expect_parseException(@TempDir Path tempDir) throws IOException {
+        Path gzipFile = tempDir.resolve("test.log.gz");
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("11:35:23,scheduled task 032, START,37980\n".repeat(100).getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] bytes = compressed.toByteArray();
+        bytes[bytes.length - 5] ^= 1;
+        Files.write(gzipFile, bytes);
+
+        assertThatThrownBy(() -> new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.MAPPED, 4).parse(gzipFile))
+            .isInstanceOf(ParseException.class);
+        assertThatThrownBy(() -> new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.READER, 1).parse(gzipFile))
+            .isInstanceOf(ParseException.class);
+    }
+
+    @Test
+    void when_parsingIntoStore_expect_sameEntriesAsList(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        String content = """
+            11:35:23,scheduled task 032, START,37980
+            invalid line
+            11:35:56,scheduled task 032, END,37980
+            11:36:11,scheduled task 796, START,57672
+            """;
+        Files.writeString(logFile, content);
+
+        LogEntryStore store = new LogEntryStore();
+        parser.parse(logFile, store);
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.asList()).containsExactlyElementsOf(parser.parse(logFile));
+        assertThat(store.descriptionId(1)).isEqualTo(store.descriptionId(0)).isNotEqualTo(store.descriptionId(2));
+    }
+
     @Test
     void when_logFileNotFound_expect_validationFailure() {
         Path nonExistentFile = Path.of("non_existent_file.log");
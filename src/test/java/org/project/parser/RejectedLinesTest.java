@@ -0,0 +1,77 @@
+package org.project.parser;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RejectedLinesTest {
+
+    @Test
+    void when_linesRejected_expect_quarantinedAndCountedPerReason(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            content.append("11:35:23,scheduled task 032, START,37980\n");
+            content.append("invalid line ").append(i).append('\n');
+        }
+        content.append("11:35:23,scheduled task 032, START,pid\n");
+        content.append("25:35:23,scheduled task 032, START,1\n");
+        Files.writeString(logFile, content);
+        Path quarantineFile = tempDir.resolve("rejected.tsv");
+
+        for (ParseMode mode : ParseMode.values()) {
+            Files.deleteIfExists(quarantineFile);
+            RejectedLines rejectedLines = new RejectedLines(quarantineFile);
+            CsvLogParser parser = new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, mode, 1, null, rejectedLines);
+
+            assertThat(parser.parse(logFile)).hasSize(25);
+
+            assertThat(rejectedLines.total()).isEqualTo(27);
+            assertThat(rejectedLines.counts()).isEqualTo(Map.of(
+                RejectReason.FIELD_COUNT, 25L, RejectReason.PID, 1L, RejectReason.TIMESTAMP, 1L));
+            List<String> quarantined = Files.readAllLines(quarantineFile);
+            assertThat(quarantined).hasSize(27);
+            assertThat(quarantined.get(0)).isEqualTo(logFile + "\t2\tFIELD_COUNT\tinvalid line 0");
+            assertThat(quarantined.get(26)).isEqualTo(logFile + "\t52\tTIMESTAMP\t25:35:23,scheduled task 032, START,1");
+            rejectedLines.close();
+        }
+    }
+
+    @Test
+    void when_manyLinesRejected_expect_sampledWarnings(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        Files.writeString(logFile, "invalid line\n".repeat(1000) + "11:35:23,scheduled task 032, START,pid\n");
+
+        Logger logger = (Logger) LoggerFactory.getLogger(RejectedLines.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            CsvLogParser parser = new CsvLogParser();
+            parser.parse(logFile);
+
+            List<String> warnings = appender.list.stream()
+                .filter(event -> event.getLevel() == Level.WARN)
+                .map(ILoggingEvent::getFormattedMessage)
+                .toList();
+            assertThat(parser.rejectedLines().count(RejectReason.FIELD_COUNT)).isEqualTo(1000);
+            assertThat(warnings).hasSize(RejectedLines.LOGGED_PER_REASON + 2);
+            assertThat(warnings.get(RejectedLines.LOGGED_PER_REASON)).startsWith("Rejected 11 lines for FIELD_COUNT so far");
+            assertThat(warnings.get(RejectedLines.LOGGED_PER_REASON + 1)).startsWith("Failed to parse line 1001:");
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.project.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.model.LogEntry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentCacheTest {
+    private static final String CONTENT = """
+        11:35:23,scheduled task 032, START,37980
+        invalid line
+        11:35:56,scheduled task 032, END,37980
+        11:36:11,scheduled täsk 796, START,57672
+        """;
+
+    @Test
+    void when_fileParsedAgain_expect_entriesReadFromSegment(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        Files.writeString(logFile, CONTENT);
+        Path cacheDir = tempDir.resolve("cache");
+        CsvLogParser cachingParser = cachingParser(cacheDir, 1 << 20);
+        List<LogEntry> expected = new CsvLogParser().parse(logFile);
+
+        assertThat(cachingParser.parse(logFile)).containsExactlyElementsOf(expected);
+        assertThat(cachingParser.rejectedLines().total()).isEqualTo(1);
+
+        CsvLogParser secondRunParser = cachingParser(cacheDir, 1 << 20);
+        assertThat(cachingParser.parse(logFile)).containsExactlyElementsOf(expected);
+        assertThat(secondRunParser.parse(logFile)).containsExactlyElementsOf(expected);
+        assertThat(cachingParser.rejectedLines().total()).isEqualTo(1);
+        assertThat(secondRunParser.rejectedLines().total()).isZero();
+        assertThat(segments(cacheDir)).hasSize(1);
+    }
+
+    @Test
+    void when_sourceChanges_expect_segmentRebuilt(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        Files.writeString(logFile, CONTENT);
+        Path cacheDir = tempDir.resolve("cache");
+        CsvLogParser cachingParser = cachingParser(cacheDir, 1 << 20);
+        cachingParser.parse(logFile);
+
+        Files.writeString(logFile, "11:40:00,scheduled task 796, END,57672\n", StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(logFile, FileTime.fromMillis(Files.getLastModifiedTime(logFile).toMillis() + 1000));
+
+        List<LogEntry> entries = cachingParser.parse(logFile);
+
+        assertThat(entries).hasSize(4).containsExactlyElementsOf(new CsvLogParser().parse(logFile));
+        assertThat(segments(cacheDir)).hasSize(1);
+    }
+
+    @Test
+    void when_cacheFull_expect_leastRecentlyUsedSegmentsEvicted(@TempDir Path tempDir) throws IOException, ParseException {
+        Path cacheDir = tempDir.resolve("cache");
+        CsvLogParser cachingParser = cachingParser(cacheDir, 1);
+        Path first = tempDir.resolve("first.log");
+        Path second = tempDir.resolve("second.log");
+        Files.writeString(first, CONTENT);
+        Files.writeString(second, CONTENT);
+
+        cachingParser.parse(first);
+        List<Path> firstSegments = segments(cacheDir);
+        cachingParser.parse(second);
+
+        assertThat(firstSegments).hasSize(1);
+        assertThat(segments(cacheDir)).hasSize(1).doesNotContainAnyElementsOf(firstSegments);
+        assertThat(cachingParser.parse(first)).containsExactlyElementsOf(cachingParser.parse(second));
+    }
+
+    @Test
+    void when_timestampsWithFractionalSeconds_expect_parsedWithoutSegment(@TempDir Path tempDir) throws IOException, ParseException {
+        Path logFile = tempDir.resolve("test.log");
+        Files.writeString(logFile, "11:35:23.250,scheduled task 032, START,37980\n");
+        Path cacheDir = tempDir.resolve("cache");
+        DateTimeFormatter millis = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+        CsvLogParser cachingParser = new CsvLogParser(",", millis, ParseMode.READER, 1, new SegmentCache(cacheDir, 1 << 20));
+
+        assertThat(cachingParser.parse(logFile)).containsExactlyElementsOf(new CsvLogParser(",", millis).parse(logFile));
+        assertThat(segments(cacheDir)).isEmpty();
+    }
+
+    private static CsvLogParser cachingParser(Path cacheDir, long maxBytes) {
+        return new CsvLogParser(",", CsvLogParser.DEFAULT_TIME_FORMATTER, ParseMode.MAPPED, 1, new SegmentCache(cacheDir, maxBytes));
+    }
+
+    private static List<Path> segments(Path cacheDir) throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.toList();
+        }
+    }
+}